@@ -0,0 +1,36 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+    @Param({"1048576", "16777216"})
+    int physicalMemorySize;
+
+    @Param({"64", "4096"})
+    int pageSize;
+
+    @Param({"4096", "65536", "1048576"})
+    int processSize;
+
+    private Object memoryManager;
+
+    @Setup
+    public void setUp() throws Throwable {
+        this.memoryManager = (Object) Simulator.NEW_MEMORY_MANAGER.invokeExact(this.physicalMemorySize, this.pageSize, this.processSize);
+    }
+
+    // Creation includes filling the process image, destruction keeps memory from running out
+    @Benchmark
+    public void createAndDestroyProcess() throws Throwable {
+        Simulator.CREATE_PROCESS.invokeExact(this.memoryManager, 1, this.processSize);
+        Simulator.DESTROY_PROCESS.invokeExact(this.memoryManager, 1);
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Job-startup burst: admitting a batch of processes one createProcess call at a time
+// versus one all-or-nothing createProcesses call with parallel image copies.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchAdmissionBenchmark {
+    private static final int PHYSICAL_MEMORY_SIZE = 64 << 20;
+    private static final int PAGE_SIZE = 4096;
+
+    @Param({"64", "1024"})
+    int batchSize;
+
+    @Param({"16384", "65536"})
+    int processSize;
+
+    private Object memoryManager;
+    private List<Object> specs;
+
+    @Setup
+    public void setUp() throws Throwable {
+        this.memoryManager = (Object) Simulator.NEW_MEMORY_MANAGER.invokeExact(PHYSICAL_MEMORY_SIZE, PAGE_SIZE, this.processSize);
+        this.specs = new ArrayList<>(this.batchSize);
+        for (int pid = 0; pid < this.batchSize; pid++) {
+            this.specs.add((Object) Simulator.NEW_PROCESS_SPEC.invokeExact(pid, this.processSize));
+        }
+    }
+
+    @Benchmark
+    public void createOneByOne() throws Throwable {
+        for (int pid = 0; pid < this.batchSize; pid++) {
+            Simulator.CREATE_PROCESS.invokeExact(this.memoryManager, pid, this.processSize);
+        }
+        this.destroyAll();
+    }
+
+    @Benchmark
+    public void createBatch() throws Throwable {
+        Simulator.CREATE_PROCESSES.invokeExact(this.memoryManager, this.specs);
+        this.destroyAll();
+    }
+
+    private void destroyAll() throws Throwable {
+        for (int pid = 0; pid < this.batchSize; pid++) {
+            Simulator.DESTROY_PROCESS.invokeExact(this.memoryManager, pid);
+        }
+    }
+}
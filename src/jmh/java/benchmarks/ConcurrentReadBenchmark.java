@@ -0,0 +1,48 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+// Read throughput of one shared ConcurrentMemoryManager; run with -t 1, 2, 4... to see how it scales
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentReadBenchmark {
+    private static final int PROCESSES = 64;
+    private static final int PROCESS_SIZE = 8192;
+
+    private Object memoryManager;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int address;
+        int pid;
+
+        @Setup
+        public void setUp(ThreadParams threadParams) {
+            this.pid = threadParams.getThreadIndex() % PROCESSES;
+            this.address = threadParams.getThreadIndex() * 7919;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Throwable {
+        this.memoryManager = (Object) Simulator.NEW_CONCURRENT_MEMORY_MANAGER.invokeExact(1 << 20, 64, PROCESS_SIZE);
+        for (int pid = 0; pid < PROCESSES; pid++) {
+            Simulator.CONCURRENT_CREATE_PROCESS.invokeExact(this.memoryManager, pid, PROCESS_SIZE);
+        }
+    }
+
+    @Benchmark
+    public byte randomSingleByte(Cursor cursor) throws Throwable {
+        cursor.address = (cursor.address * 1103515245 + 12345) & 0x7FFFFFFF;
+        int pid = cursor.pid;
+        cursor.pid = (pid + 1 == PROCESSES) ? 0 : pid + 1;
+        return (byte) Simulator.CONCURRENT_READ_BY_LOGICAL_ADDRESS.invokeExact(this.memoryManager, pid, cursor.address % PROCESS_SIZE);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Lookup latency of each page table design on a large, sparse process. The footprint of
+// each configuration is printed once per trial.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageTableBenchmark {
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"flat", "two-level", "three-level", "inverted"})
+    String implementation;
+
+    @Param({"1048576"})
+    int numberOfPages;
+
+    // Mapped pages, split into clusters spread over the address space
+    @Param({"4096", "65536"})
+    int mappedPages;
+
+    private Object pageTable;
+    private int[] mappedLookups;
+    private int[] anyLookups;
+    private int index;
+
+    @Setup
+    public void setUp() throws Throwable {
+        Object inverted = null;
+        switch (this.implementation) {
+            case "flat":
+                this.pageTable = (Object) Simulator.NEW_FLAT_PAGE_TABLE.invokeExact(this.numberOfPages);
+                break;
+            case "two-level":
+                this.pageTable = (Object) Simulator.NEW_MULTI_LEVEL_PAGE_TABLE.invokeExact(this.numberOfPages, 2);
+                break;
+            case "three-level":
+                this.pageTable = (Object) Simulator.NEW_MULTI_LEVEL_PAGE_TABLE.invokeExact(this.numberOfPages, 3);
+                break;
+            default:
+                inverted = (Object) Simulator.NEW_INVERTED_PAGE_TABLE.invokeExact(this.mappedPages);
+                this.pageTable = (Object) Simulator.INVERTED_FOR_PROCESS.invokeExact(inverted, 1, this.numberOfPages);
+        }
+
+        int clusters = 16;
+        int clusterSize = this.mappedPages / clusters;
+        int stride = this.numberOfPages / clusters;
+        int[] mapped = new int[this.mappedPages];
+        for (int cluster = 0; cluster < clusters; cluster++) {
+            for (int i = 0; i < clusterSize; i++) {
+                int page = cluster * stride + i;
+                mapped[cluster * clusterSize + i] = page;
+                Simulator.PAGE_TABLE_SET_FRAME.invokeExact(this.pageTable, page, cluster * clusterSize + i);
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(7);
+        this.mappedLookups = new int[LOOKUPS];
+        this.anyLookups = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.mappedLookups[i] = mapped[random.nextInt(mapped.length)];
+            this.anyLookups[i] = random.nextInt(this.numberOfPages);
+        }
+
+        long footprint = (inverted == null)
+                ? (long) Simulator.PAGE_TABLE_FOOTPRINT_BYTES.invokeExact(this.pageTable)
+                : (long) Simulator.INVERTED_FOOTPRINT_BYTES.invokeExact(inverted);
+        System.out.printf("%n[%s] %d pages, %d mapped: ~%d KB%n",
+                this.implementation, this.numberOfPages, this.mappedPages, footprint / 1024);
+    }
+
+    @Benchmark
+    public int lookupMappedPage() throws Throwable {
+        int i = this.index;
+        this.index = (i + 1) & (LOOKUPS - 1);
+        return (int) Simulator.PAGE_TABLE_GET_ENTRY.invokeExact(this.pageTable, this.mappedLookups[i]);
+    }
+
+    @Benchmark
+    public int lookupAnyPage() throws Throwable {
+        int i = this.index;
+        this.index = (i + 1) & (LOOKUPS - 1);
+        return (int) Simulator.PAGE_TABLE_GET_ENTRY.invokeExact(this.pageTable, this.anyLookups[i]);
+    }
+}
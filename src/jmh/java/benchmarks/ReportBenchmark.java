@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+    @Param({"65536", "1048576"})
+    int physicalMemorySize;
+
+    @Param({"64", "4096"})
+    int pageSize;
+
+    private Object memoryManager;
+    private final Writer discard = Writer.nullWriter();
+
+    @Setup
+    public void setUp() throws Throwable {
+        int processSize = this.physicalMemorySize / 4;
+        this.memoryManager = (Object) Simulator.NEW_MEMORY_MANAGER.invokeExact(this.physicalMemorySize, this.pageSize, processSize);
+
+        // Half of the memory in use so the report mixes owned and free frames
+        Simulator.CREATE_PROCESS.invokeExact(this.memoryManager, 1, processSize);
+        Simulator.CREATE_PROCESS.invokeExact(this.memoryManager, 2, processSize);
+    }
+
+    @Benchmark
+    public List<?> memoryReport() throws Throwable {
+        return (List<?>) Simulator.GET_MEMORY_REPORT.invokeExact(this.memoryManager);
+    }
+
+    @Benchmark
+    public void streamedReport() throws Throwable {
+        Simulator.WRITE_MEMORY_REPORT.invokeExact(this.memoryManager, (Appendable) this.discard);
+    }
+
+    @Benchmark
+    public void summaryReport() throws Throwable {
+        Simulator.WRITE_MEMORY_REPORT_SUMMARY.invokeExact(this.memoryManager, (Appendable) this.discard);
+    }
+}
@@ -0,0 +1,132 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+// JMH refuses benchmark classes in the default package, while the simulator classes
+// live there and cannot be named from a package. This bridge looks them up once;
+// calls through static final MethodHandles are inlined by the JIT like direct calls.
+final class Simulator {
+    static final MethodHandle NEW_MEMORY_MANAGER;
+    static final MethodHandle NEW_TLB;
+    static final MethodHandle SET_TLB;
+    static final MethodHandle CREATE_PROCESS;
+    static final MethodHandle DESTROY_PROCESS;
+    static final MethodHandle NEW_PROCESS_SPEC;
+    static final MethodHandle CREATE_PROCESSES;
+    static final MethodHandle READ_BY_LOGICAL_ADDRESS;
+    static final MethodHandle WRITE_BY_LOGICAL_ADDRESS;
+    static final MethodHandle READ;
+    static final MethodHandle GET_MEMORY_REPORT;
+    static final MethodHandle WRITE_MEMORY_REPORT;
+    static final MethodHandle WRITE_MEMORY_REPORT_SUMMARY;
+
+    static final MethodHandle NEW_CONCURRENT_MEMORY_MANAGER;
+    static final MethodHandle CONCURRENT_CREATE_PROCESS;
+    static final MethodHandle CONCURRENT_READ_BY_LOGICAL_ADDRESS;
+
+    static final MethodHandle NEW_FLAT_PAGE_TABLE;
+    static final MethodHandle NEW_MULTI_LEVEL_PAGE_TABLE;
+    static final MethodHandle NEW_INVERTED_PAGE_TABLE;
+    static final MethodHandle INVERTED_FOR_PROCESS;
+    static final MethodHandle INVERTED_FOOTPRINT_BYTES;
+    static final MethodHandle PAGE_TABLE_GET_ENTRY;
+    static final MethodHandle PAGE_TABLE_SET_FRAME;
+    static final MethodHandle PAGE_TABLE_FOOTPRINT_BYTES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> memoryManager = Class.forName("MemoryManager");
+            Class<?> tlb = Class.forName("Tlb");
+            Class<?> replacement = Class.forName("Tlb$Replacement");
+            Class<?> taggingMode = Class.forName("Tlb$TaggingMode");
+
+            NEW_MEMORY_MANAGER = lookup.findConstructor(memoryManager,
+                            MethodType.methodType(void.class, int.class, int.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class, int.class, int.class));
+
+            MethodHandle newTlb = lookup.findConstructor(tlb,
+                    MethodType.methodType(void.class, int.class, int.class, replacement, taggingMode));
+            Object lru = replacement.getField("LRU").get(null);
+            Object pidTagged = taggingMode.getField("PID_TAGGED").get(null);
+            NEW_TLB = MethodHandles.insertArguments(newTlb, 2, lru, pidTagged)
+                    .asType(MethodType.methodType(Object.class, int.class, int.class));
+
+            SET_TLB = lookup.findVirtual(memoryManager, "setTlb", MethodType.methodType(void.class, tlb))
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            CREATE_PROCESS = lookup.findVirtual(memoryManager, "createProcess",
+                            MethodType.methodType(void.class, int.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, int.class));
+            NEW_PROCESS_SPEC = lookup.findConstructor(Class.forName("MemoryManager$ProcessSpec"),
+                            MethodType.methodType(void.class, int.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class, int.class));
+            CREATE_PROCESSES = lookup.findVirtual(memoryManager, "createProcesses",
+                            MethodType.methodType(void.class, List.class))
+                    .asType(MethodType.methodType(void.class, Object.class, List.class));
+            DESTROY_PROCESS = lookup.findVirtual(memoryManager, "destroyProcess",
+                            MethodType.methodType(void.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class));
+            READ_BY_LOGICAL_ADDRESS = lookup.findVirtual(memoryManager, "readByLogicalAddress",
+                            MethodType.methodType(byte.class, int.class, int.class))
+                    .asType(MethodType.methodType(byte.class, Object.class, int.class, int.class));
+            WRITE_BY_LOGICAL_ADDRESS = lookup.findVirtual(memoryManager, "writeByLogicalAddress",
+                            MethodType.methodType(void.class, int.class, int.class, byte.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, int.class, byte.class));
+            READ = lookup.findVirtual(memoryManager, "read",
+                            MethodType.methodType(void.class, int.class, int.class, byte[].class, int.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, int.class, byte[].class, int.class, int.class));
+            GET_MEMORY_REPORT = lookup.findVirtual(memoryManager, "getMemoryReport", MethodType.methodType(List.class))
+                    .asType(MethodType.methodType(List.class, Object.class));
+            WRITE_MEMORY_REPORT = lookup.findVirtual(memoryManager, "writeMemoryReport",
+                            MethodType.methodType(void.class, Appendable.class))
+                    .asType(MethodType.methodType(void.class, Object.class, Appendable.class));
+            WRITE_MEMORY_REPORT_SUMMARY = lookup.findVirtual(memoryManager, "writeMemoryReportSummary",
+                            MethodType.methodType(void.class, Appendable.class))
+                    .asType(MethodType.methodType(void.class, Object.class, Appendable.class));
+
+            Class<?> concurrentMemoryManager = Class.forName("ConcurrentMemoryManager");
+            NEW_CONCURRENT_MEMORY_MANAGER = lookup.findConstructor(concurrentMemoryManager,
+                            MethodType.methodType(void.class, int.class, int.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class, int.class, int.class));
+            CONCURRENT_CREATE_PROCESS = lookup.findVirtual(concurrentMemoryManager, "createProcess",
+                            MethodType.methodType(void.class, int.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, int.class));
+            CONCURRENT_READ_BY_LOGICAL_ADDRESS = lookup.findVirtual(concurrentMemoryManager, "readByLogicalAddress",
+                            MethodType.methodType(byte.class, int.class, int.class))
+                    .asType(MethodType.methodType(byte.class, Object.class, int.class, int.class));
+
+            Class<?> pageTable = Class.forName("PageTable");
+            Class<?> invertedPageTable = Class.forName("InvertedPageTable");
+            NEW_FLAT_PAGE_TABLE = lookup.findConstructor(Class.forName("PagesTable"),
+                            MethodType.methodType(void.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class));
+            NEW_MULTI_LEVEL_PAGE_TABLE = lookup.findConstructor(Class.forName("MultiLevelPageTable"),
+                            MethodType.methodType(void.class, int.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class, int.class));
+            NEW_INVERTED_PAGE_TABLE = lookup.findConstructor(invertedPageTable,
+                            MethodType.methodType(void.class, int.class))
+                    .asType(MethodType.methodType(Object.class, int.class));
+            INVERTED_FOR_PROCESS = lookup.findVirtual(invertedPageTable, "forProcess",
+                            MethodType.methodType(pageTable, int.class, int.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, int.class, int.class));
+            INVERTED_FOOTPRINT_BYTES = lookup.findVirtual(invertedPageTable, "getFootprintBytes",
+                            MethodType.methodType(long.class))
+                    .asType(MethodType.methodType(long.class, Object.class));
+            PAGE_TABLE_GET_ENTRY = lookup.findVirtual(pageTable, "getEntry", MethodType.methodType(int.class, int.class))
+                    .asType(MethodType.methodType(int.class, Object.class, int.class));
+            PAGE_TABLE_SET_FRAME = lookup.findVirtual(pageTable, "setFrame",
+                            MethodType.methodType(void.class, int.class, int.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, int.class));
+            PAGE_TABLE_FOOTPRINT_BYTES = lookup.findVirtual(pageTable, "getFootprintBytes", MethodType.methodType(long.class))
+                    .asType(MethodType.methodType(long.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Simulator() {
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslationBenchmark {
+    private static final int PROCESSES = 4;
+    private static final int ADDRESSES = 1 << 16;
+
+    @Param({"65536", "1048576"})
+    int physicalMemorySize;
+
+    @Param({"64", "4096"})
+    int pageSize;
+
+    @Param({"false", "true"})
+    boolean tlb;
+
+    private Object memoryManager;
+    private int processSize;
+    private int[] randomPids;
+    private int[] randomAddresses;
+    private int sequentialAddress;
+    private int randomIndex;
+    private byte[] pageBuffer;
+
+    @Setup
+    public void setUp() throws Throwable {
+        this.processSize = this.physicalMemorySize / PROCESSES;
+        this.memoryManager = (Object) Simulator.NEW_MEMORY_MANAGER.invokeExact(this.physicalMemorySize, this.pageSize, this.processSize);
+        if (this.tlb) {
+            Object tlb = (Object) Simulator.NEW_TLB.invokeExact(64, 4);
+            Simulator.SET_TLB.invokeExact(this.memoryManager, tlb);
+        }
+
+        for (int pid = 0; pid < PROCESSES; pid++) {
+            Simulator.CREATE_PROCESS.invokeExact(this.memoryManager, pid, this.processSize);
+        }
+
+        SplittableRandom random = new SplittableRandom(42);
+        this.randomPids = new int[ADDRESSES];
+        this.randomAddresses = new int[ADDRESSES];
+        for (int i = 0; i < ADDRESSES; i++) {
+            this.randomPids[i] = random.nextInt(PROCESSES);
+            this.randomAddresses[i] = random.nextInt(this.processSize);
+        }
+        this.pageBuffer = new byte[this.pageSize];
+    }
+
+    @Benchmark
+    public byte sequentialSingleByte() throws Throwable {
+        int address = this.sequentialAddress;
+        this.sequentialAddress = (address + 1 == this.processSize) ? 0 : address + 1;
+        return (byte) Simulator.READ_BY_LOGICAL_ADDRESS.invokeExact(this.memoryManager, 0, address);
+    }
+
+    @Benchmark
+    public byte randomSingleByte() throws Throwable {
+        int i = this.randomIndex;
+        this.randomIndex = (i + 1) & (ADDRESSES - 1);
+        return (byte) Simulator.READ_BY_LOGICAL_ADDRESS.invokeExact(this.memoryManager, this.randomPids[i], this.randomAddresses[i]);
+    }
+
+    @Benchmark
+    public void sequentialSingleByteWrite() throws Throwable {
+        int address = this.sequentialAddress;
+        this.sequentialAddress = (address + 1 == this.processSize) ? 0 : address + 1;
+        Simulator.WRITE_BY_LOGICAL_ADDRESS.invokeExact(this.memoryManager, 0, address, (byte) address);
+    }
+
+    @Benchmark
+    public void randomSingleByteWrite() throws Throwable {
+        int i = this.randomIndex;
+        this.randomIndex = (i + 1) & (ADDRESSES - 1);
+        Simulator.WRITE_BY_LOGICAL_ADDRESS.invokeExact(this.memoryManager, this.randomPids[i], this.randomAddresses[i], (byte) i);
+    }
+
+    @Benchmark
+    public void sequentialPageBulk(Blackhole blackhole) throws Throwable {
+        int address = this.sequentialAddress;
+        this.sequentialAddress = (address + this.pageSize >= this.processSize) ? 0 : address + this.pageSize;
+        Simulator.READ.invokeExact(this.memoryManager, 0, address, this.pageBuffer, 0, this.pageSize);
+        blackhole.consume(this.pageBuffer);
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.function.IntPredicate;
+
+// Second-chance: the hand sweeps frames in index order, clearing reference bits
+// until it finds an unreferenced resident frame.
+public class ClockPolicy implements ReplacementPolicy {
+    private boolean[] resident;
+    private boolean[] referenced;
+    private int hand;
+
+    @Override
+    public void init(int numberOfFrames) {
+        this.resident = new boolean[numberOfFrames];
+        this.referenced = new boolean[numberOfFrames];
+        this.hand = 0;
+    }
+
+    @Override
+    public void onLoad(int frame, int pid, int page) {
+        this.resident[frame] = true;
+        this.referenced[frame] = true;
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        this.referenced[frame] = true;
+    }
+
+    @Override
+    public void onFree(int frame) {
+        this.resident[frame] = false;
+        this.referenced[frame] = false;
+    }
+
+    @Override
+    public int selectVictim(IntPredicate evictable) {
+        int numberOfFrames = this.resident.length;
+
+        // Two full turns are enough: the first one clears every reference bit
+        for (int step = 0; step < 2 * numberOfFrames; step++) {
+            int frame = this.hand;
+            this.hand = (this.hand + 1) % numberOfFrames;
+
+            if (!this.resident[frame] || !evictable.test(frame)) {
+                continue;
+            }
+
+            if (this.referenced[frame]) {
+                this.referenced[frame] = false;
+            } else {
+                return frame;
+            }
+        }
+        return NO_VICTIM;
+    }
+
+    @Override
+    public void relocate(int[] newFrames) {
+        this.resident = ReplacementPolicy.permute(this.resident, newFrames);
+        this.referenced = ReplacementPolicy.permute(this.referenced, newFrames);
+    }
+
+    @Override
+    public String getName() {
+        return "CLOCK";
+    }
+}
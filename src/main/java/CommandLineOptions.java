@@ -0,0 +1,263 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+// Options of the non-interactive runs (java Main --run / --sweep). They come from flags and/or a
+// properties file given with --config, whose keys are the flag names without the dashes; flags
+// override the file. Sizes accept a K, M or G suffix, and memory, page and policy take
+// comma-separated lists, which a sweep expands into every combination.
+public class CommandLineOptions {
+    public static final String USAGE = String.join("\n",
+            "Usage: java Main --run|--sweep [options]",
+            "  --config <file>        properties file with any of the options below (e.g. memory=1M,4M)",
+            "  --memory <sizes>       physical memory sizes, e.g. 64K,1M (multiples of the page size)",
+            "  --page <sizes>         page sizes, powers of two, e.g. 256,4096",
+            "  --max-process <size>   maximum process size",
+            "  --policy <names>       NONE (eager allocation), FIFO, LRU, CLOCK or LFU (default NONE)",
+            "  --trace <file>         replay a trace file; without it a synthetic workload is generated:",
+            "  --processes <n>          processes of max-process bytes (default 8)",
+            "  --events <n>             accesses, 80% to a hot 20% of each process (default 100000)",
+            "  --write-ratio <r>        share of writes among the accesses (default 0.2)",
+            "  --seed <n>             seed of the synthetic workload and of the process images (default 42)",
+            "  --threads <n>          configurations run in parallel (default: available processors)",
+            "  --output <file>        CSV destination of --sweep (default: standard output)");
+
+    private static final List<String> KEYS = List.of("config", "memory", "page", "max-process", "policy", "trace",
+            "processes", "events", "write-ratio", "seed", "threads", "output");
+
+    private boolean sweep;
+    private List<Integer> memorySizes;
+    private List<Integer> pageSizes;
+    private List<String> policies;
+    private int maxProcessSize;
+    private Path trace;
+    private int processes;
+    private long events;
+    private double writeRatio;
+    private long seed;
+    private int threads;
+    private Path output;
+
+    public static CommandLineOptions parse(String[] args) throws IOException {
+        Properties flags = new Properties();
+        boolean sweep = false;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--sweep") || arg.equals("--run")) {
+                sweep |= arg.equals("--sweep");
+                continue;
+            }
+
+            if (!arg.startsWith("--") || !KEYS.contains(arg.substring(2))) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            flags.setProperty(arg.substring(2), args[++i]);
+        }
+
+        Properties properties = new Properties();
+        if (flags.containsKey("config")) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(flags.getProperty("config")))) {
+                properties.load(reader);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                if (!KEYS.contains(key) || key.equals("config")) {
+                    throw new IllegalArgumentException("Unknown option in config file: " + key);
+                }
+            }
+        }
+        properties.putAll(flags);
+        return new CommandLineOptions(properties, sweep);
+    }
+
+    CommandLineOptions(Properties properties, boolean sweep) {
+        List<String> errors = new ArrayList<>();
+        this.sweep = sweep;
+        this.memorySizes = parseSizes(properties, "memory", errors);
+        this.pageSizes = parseSizes(properties, "page", errors);
+        List<Integer> maxProcessSizes = parseSizes(properties, "max-process", errors);
+        if (maxProcessSizes.size() > 1) {
+            errors.add("max-process takes a single size");
+        }
+        this.maxProcessSize = maxProcessSizes.isEmpty() ? 0 : maxProcessSizes.get(0);
+        this.policies = new ArrayList<>();
+        for (String policy : properties.getProperty("policy", "NONE").split(",")) {
+            this.policies.add(policy.trim().toUpperCase());
+        }
+
+        String trace = properties.getProperty("trace");
+        this.trace = (trace == null) ? null : Paths.get(trace);
+        this.processes = parseInt(properties, "processes", 8, errors);
+        this.events = parseLong(properties, "events", 100000, errors);
+        this.seed = parseLong(properties, "seed", 42, errors);
+        this.threads = parseInt(properties, "threads", Runtime.getRuntime().availableProcessors(), errors);
+        String writeRatio = properties.getProperty("write-ratio", "0.2");
+        try {
+            this.writeRatio = Double.parseDouble(writeRatio.trim());
+        } catch (NumberFormatException e) {
+            errors.add("write-ratio must be a number: " + writeRatio);
+            this.writeRatio = 0.2;
+        }
+        String output = properties.getProperty("output");
+        this.output = (output == null) ? null : Paths.get(output);
+
+        this.validate(errors);
+    }
+
+    // Every problem, parsing ones included, is reported at once instead of failing on the first one
+    private void validate(List<String> errors) {
+        for (int pageSize : this.pageSizes) {
+            if (pageSize <= 0 || Integer.bitCount(pageSize) != 1) {
+                errors.add("page size " + pageSize + " is not a power of two");
+            }
+        }
+        for (int memorySize : this.memorySizes) {
+            for (int pageSize : this.pageSizes) {
+                if (pageSize > 0 && (memorySize < pageSize || memorySize % pageSize != 0)) {
+                    errors.add("memory size " + memorySize + " is not a multiple of page size " + pageSize);
+                }
+            }
+        }
+        for (String policy : this.policies) {
+            if (!policy.equals("NONE")) {
+                try {
+                    ReplacementPolicy.byName(policy);
+                } catch (IllegalArgumentException e) {
+                    errors.add(e.getMessage());
+                }
+            }
+        }
+        if (this.trace == null && (this.processes <= 0 || this.events < 0 || this.writeRatio < 0 || this.writeRatio > 1)) {
+            errors.add("synthetic workload needs processes > 0, events >= 0 and a write ratio in 0..1");
+        }
+        if (this.threads <= 0) {
+            errors.add("threads must be positive");
+        }
+
+        if (!errors.isEmpty()) {
+            boolean missing = errors.stream().anyMatch(error -> error.startsWith("missing option"));
+            throw new IllegalArgumentException("Invalid options: " + String.join("; ", errors) + "."
+                    + (missing ? "\n" + USAGE : ""));
+        }
+    }
+
+    // Sizes of a required option; the invalid ones are reported in errors and left out
+    private static List<Integer> parseSizes(Properties properties, String key, List<String> errors) {
+        String values = properties.getProperty(key);
+        if (values == null || values.isBlank()) {
+            errors.add("missing option --" + key);
+            return Collections.emptyList();
+        }
+
+        List<Integer> sizes = new ArrayList<>();
+        for (String value : values.split(",")) {
+            try {
+                sizes.add(parseSize(value));
+            } catch (IllegalArgumentException e) {
+                errors.add(key + ": " + e.getMessage());
+            }
+        }
+        return Collections.unmodifiableList(sizes);
+    }
+
+    // Integer options; an invalid value is reported in errors and replaced by the default
+    private static int parseInt(Properties properties, String key, int defaultValue, List<String> errors) {
+        String value = properties.getProperty(key);
+        try {
+            return (value == null) ? defaultValue : Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            errors.add(key + " must be an integer: " + value);
+            return defaultValue;
+        }
+    }
+
+    private static long parseLong(Properties properties, String key, long defaultValue, List<String> errors) {
+        String value = properties.getProperty(key);
+        try {
+            return (value == null) ? defaultValue : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            errors.add(key + " must be an integer: " + value);
+            return defaultValue;
+        }
+    }
+
+    // 4096, 64K, 16M, 1G
+    static int parseSize(String value) {
+        String size = value.trim().toUpperCase();
+        int shift = 0;
+        if (size.endsWith("K")) {
+            shift = 10;
+        } else if (size.endsWith("M")) {
+            shift = 20;
+        } else if (size.endsWith("G")) {
+            shift = 30;
+        }
+        if (shift != 0) {
+            size = size.substring(0, size.length() - 1);
+        }
+
+        long bytes;
+        try {
+            bytes = Long.parseLong(size.trim()) << shift;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid size: " + value);
+        }
+        if (bytes <= 0 || bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Size out of range: " + value);
+        }
+        return (int) bytes;
+    }
+
+    // Every (memory size x page size x policy) combination, in that nesting order
+    public List<SweepRunner.Configuration> getConfigurations() {
+        List<SweepRunner.Configuration> configurations = new ArrayList<>();
+        for (int memorySize : this.memorySizes) {
+            for (int pageSize : this.pageSizes) {
+                for (String policy : this.policies) {
+                    configurations.add(new SweepRunner.Configuration(memorySize, pageSize, policy));
+                }
+            }
+        }
+        return configurations;
+    }
+
+    // Workload of one run: the trace file, or a fresh generator with the same seed
+    public Reader openWorkload() throws IOException {
+        if (this.trace != null) {
+            return Files.newBufferedReader(this.trace);
+        }
+        return new SyntheticTrace(this.processes, this.maxProcessSize, this.events, this.writeRatio, this.seed);
+    }
+
+    public boolean isSweep() {
+        return this.sweep;
+    }
+
+    public int getMaxProcessSize() {
+        return this.maxProcessSize;
+    }
+
+    public Path getTrace() {
+        return this.trace;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public int getThreads() {
+        return this.threads;
+    }
+
+    public Path getOutput() {
+        return this.output;
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free free-frame pool for ConcurrentMemoryManager. Frames live in several
+// Treiber stacks (one per stripe, threads map to a home stripe) linked through a
+// shared next[] array. Each stack head packs an ABA tag in the high 32 bits and
+// the top frame in the low 32 bits.
+public class ConcurrentFrameAllocator {
+    public static final int NO_FRAME = -1;
+
+    private final AtomicLongArray heads;
+    private final AtomicIntegerArray next;
+    private final AtomicInteger freeCount = new AtomicInteger();
+    private final int stripeMask;
+    private final int numberOfFrames;
+
+    public ConcurrentFrameAllocator(int numberOfFrames) {
+        this(numberOfFrames, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ConcurrentFrameAllocator(int numberOfFrames, int stripes) {
+        int numberOfStripes = (stripes <= 1) ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.numberOfFrames = numberOfFrames;
+        this.stripeMask = numberOfStripes - 1;
+        this.heads = new AtomicLongArray(numberOfStripes);
+        this.next = new AtomicIntegerArray(numberOfFrames);
+
+        for (int stripe = 0; stripe < numberOfStripes; stripe++) {
+            this.heads.set(stripe, pack(0, NO_FRAME));
+        }
+        // Frames are dealt round-robin so every stripe starts with a share, lowest frames on top
+        for (int frame = numberOfFrames - 1; frame >= 0; frame--) {
+            this.push(frame & this.stripeMask, frame);
+        }
+        this.freeCount.set(numberOfFrames);
+    }
+
+    // Atomically claims count frames from the free total; false if not enough are free.
+    // Every successful reservation must be followed by count calls to allocateReserved().
+    public boolean reserve(int count) {
+        while (true) {
+            int free = this.freeCount.get();
+            if (free < count) {
+                return false;
+            }
+            if (this.freeCount.compareAndSet(free, free - count)) {
+                return true;
+            }
+        }
+    }
+
+    public int allocateReserved() {
+        int home = this.homeStripe();
+        while (true) {
+            // Home stripe first, then steal from the others
+            for (int i = 0; i <= this.stripeMask; i++) {
+                int frame = this.pop((home + i) & this.stripeMask);
+                if (frame != NO_FRAME) {
+                    return frame;
+                }
+            }
+            // A reserved frame is being pushed by a concurrent free(), retry
+            Thread.onSpinWait();
+        }
+    }
+
+    public void free(int frame) {
+        if (frame < 0 || frame >= this.numberOfFrames) {
+            throw new IllegalArgumentException("Frame out of bounds: " + frame);
+        }
+
+        this.push(this.homeStripe(), frame);
+        this.freeCount.incrementAndGet();
+    }
+
+    private int pop(int stripe) {
+        while (true) {
+            long head = this.heads.get(stripe);
+            int frame = (int) head;
+            if (frame == NO_FRAME) {
+                return NO_FRAME;
+            }
+
+            long newHead = pack((int) (head >>> 32) + 1, this.next.get(frame));
+            if (this.heads.compareAndSet(stripe, head, newHead)) {
+                return frame;
+            }
+        }
+    }
+
+    private void push(int stripe, int frame) {
+        while (true) {
+            long head = this.heads.get(stripe);
+            this.next.set(frame, (int) head);
+
+            long newHead = pack((int) (head >>> 32) + 1, frame);
+            if (this.heads.compareAndSet(stripe, head, newHead)) {
+                return;
+            }
+        }
+    }
+
+    private int homeStripe() {
+        return (int) Thread.currentThread().getId() & this.stripeMask;
+    }
+
+    private static long pack(int tag, int frame) {
+        return ((long) tag << 32) | (frame & 0xFFFFFFFFL);
+    }
+
+    public int getFreeCount() {
+        return this.freeCount.get();
+    }
+
+    public int getNumberOfFrames() {
+        return this.numberOfFrames;
+    }
+}
@@ -0,0 +1,220 @@
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.StampedLock;
+
+// Thread-safe variant of MemoryManager (eager allocation only, no TLB or demand paging).
+// There is no global lock: each process has its own StampedLock, translations use
+// optimistic reads, and frames come from the lock-free ConcurrentFrameAllocator.
+public class ConcurrentMemoryManager {
+    private final PhysicalMemory physicalMemory;
+    private final int pageSize;
+    private final int maxProcessSize;
+    private final ConcurrentFrameAllocator freeFrames;
+    private final ConcurrentMap<Integer, ProcessEntry> processes = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray frameOwners; // -1 = free; read without any process lock
+
+    public ConcurrentMemoryManager(int physicalMemorySize, int pageSize, int maxProcessSize) {
+        this.physicalMemory = new PhysicalMemory(physicalMemorySize, pageSize);
+        this.pageSize = pageSize;
+        this.maxProcessSize = maxProcessSize;
+
+        int numberOfFrames = this.physicalMemory.getNumberOfFrames();
+        this.freeFrames = new ConcurrentFrameAllocator(numberOfFrames);
+        this.frameOwners = new AtomicIntegerArray(numberOfFrames);
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            this.frameOwners.set(frame, -1);
+        }
+    }
+
+    public void createProcess(int pid, int processLength) {
+        if (processLength > this.maxProcessSize) {
+            throw new IllegalArgumentException(
+                    "Process size exceeds maximum allowed size (" + this.maxProcessSize + ")."
+            );
+        }
+
+        if (this.processes.containsKey(pid)) {
+            throw new IllegalArgumentException("Process ID " + pid + " already exists.");
+        }
+
+        LogicalMemory logicalMemory = new LogicalMemory(pid, processLength, this.pageSize);
+        int numberOfPages = logicalMemory.getNumberOfPages();
+        if (!this.freeFrames.reserve(numberOfPages)) {
+            throw new IllegalStateException("Cannot create process: Not enough free frames available.");
+        }
+
+        int[] allocatedFrames = new int[numberOfPages];
+        byte[] pageBuffer = new byte[this.pageSize];
+        for (int page = 0; page < numberOfPages; page++) {
+            int frame = this.freeFrames.allocateReserved();
+            allocatedFrames[page] = frame;
+            this.frameOwners.set(frame, pid);
+
+            int logicalAddressStart = logicalMemory.getAddressByPage(page);
+            long frameAddressStart = this.physicalMemory.getAddressByFrame(frame);
+            int bytesToCopy = Math.min(this.pageSize, processLength - logicalAddressStart);
+            logicalMemory.read(logicalAddressStart, pageBuffer, 0, bytesToCopy);
+            this.physicalMemory.write(frameAddressStart, pageBuffer, 0, bytesToCopy);
+            this.physicalMemory.clear(frameAddressStart + bytesToCopy, this.pageSize - bytesToCopy);
+        }
+
+        ProcessEntry entry = new ProcessEntry(logicalMemory, new PagesTable(numberOfPages, allocatedFrames));
+        if (this.processes.putIfAbsent(pid, entry) != null) {
+            // Lost a race with another thread creating the same PID
+            this.releaseFrames(allocatedFrames);
+            throw new IllegalArgumentException("Process ID " + pid + " already exists.");
+        }
+    }
+
+    public void destroyProcess(int pid) {
+        ProcessEntry entry = this.processes.remove(pid);
+        if (entry == null) {
+            throw new IllegalArgumentException("Process ID " + pid + " not found.");
+        }
+
+        // Waits for in-flight locked accesses; optimistic readers will fail validation
+        long stamp = entry.lock.writeLock();
+        try {
+            entry.destroyed = true;
+        } finally {
+            entry.lock.unlockWrite(stamp);
+        }
+
+        int numberOfPages = entry.pagesTable.getNumberOfPages();
+        int[] frames = new int[numberOfPages];
+        for (int page = 0; page < numberOfPages; page++) {
+            frames[page] = entry.pagesTable.getFrameByPage(page);
+        }
+        this.releaseFrames(frames);
+    }
+
+    private void releaseFrames(int[] frames) {
+        for (int frame : frames) {
+            this.frameOwners.set(frame, -1);
+            this.freeFrames.free(frame);
+        }
+    }
+
+    public byte readByLogicalAddress(int pid, int logicalAddress) {
+        ProcessEntry entry = this.getProcess(pid);
+        int page = entry.logicalMemory.getPageByAddress(logicalAddress);
+        int offset = entry.logicalMemory.getOffsetByAddress(logicalAddress);
+
+        long stamp = entry.lock.tryOptimisticRead();
+        byte data = this.readTranslated(entry, page, offset);
+        if (entry.lock.validate(stamp) && !entry.destroyed) {
+            return data;
+        }
+
+        // A destroy raced with the optimistic read, retry under the read lock
+        stamp = entry.lock.readLock();
+        try {
+            this.checkAlive(entry, pid);
+            return this.readTranslated(entry, page, offset);
+        } finally {
+            entry.lock.unlockRead(stamp);
+        }
+    }
+
+    private byte readTranslated(ProcessEntry entry, int page, int offset) {
+        int frame = entry.pagesTable.getFrameByPage(page);
+        return this.physicalMemory.readByte(this.physicalMemory.getAddressByFrame(frame) + offset);
+    }
+
+    public void read(int pid, int logicalAddress, byte[] dst, int dstOffset, int length) {
+        ProcessEntry entry = this.getCheckedProcess(pid, logicalAddress, length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
+
+        long stamp = entry.lock.readLock();
+        try {
+            this.checkAlive(entry, pid);
+            this.copy(entry, logicalAddress, dst, dstOffset, length, false);
+        } finally {
+            entry.lock.unlockRead(stamp);
+        }
+    }
+
+    public void write(int pid, int logicalAddress, byte[] src, int srcOffset, int length) {
+        ProcessEntry entry = this.getCheckedProcess(pid, logicalAddress, length);
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+
+        // Exclusive per process, so dirty bits in the page table are updated safely
+        long stamp = entry.lock.writeLock();
+        try {
+            this.checkAlive(entry, pid);
+            this.copy(entry, logicalAddress, src, srcOffset, length, true);
+        } finally {
+            entry.lock.unlockWrite(stamp);
+        }
+    }
+
+    private void copy(ProcessEntry entry, int logicalAddress, byte[] buffer, int bufferOffset, int length, boolean write) {
+        while (length > 0) {
+            int page = logicalAddress / this.pageSize;
+            int offset = logicalAddress % this.pageSize;
+            int chunk = Math.min(length, this.pageSize - offset);
+            long physicalAddress = this.physicalMemory.getAddressByFrame(entry.pagesTable.getFrameByPage(page)) + offset;
+
+            if (write) {
+                this.physicalMemory.write(physicalAddress, buffer, bufferOffset, chunk);
+                entry.pagesTable.setFlags(page, PagesTable.DIRTY);
+            } else {
+                this.physicalMemory.read(physicalAddress, buffer, bufferOffset, chunk);
+            }
+
+            logicalAddress += chunk;
+            bufferOffset += chunk;
+            length -= chunk;
+        }
+    }
+
+    private ProcessEntry getProcess(int pid) {
+        ProcessEntry entry = this.processes.get(pid);
+        if (entry == null) {
+            throw new IllegalArgumentException("There is no process with PID " + pid);
+        }
+        return entry;
+    }
+
+    private ProcessEntry getCheckedProcess(int pid, int logicalAddress, int length) {
+        ProcessEntry entry = this.getProcess(pid);
+        if (logicalAddress < 0 || length < 0 || logicalAddress > entry.logicalMemory.getSize() - length) {
+            throw new IllegalArgumentException("Logical address out of bounds: " + logicalAddress + " (+" + length + ")");
+        }
+        return entry;
+    }
+
+    private void checkAlive(ProcessEntry entry, int pid) {
+        if (entry.destroyed) {
+            throw new IllegalArgumentException("There is no process with PID " + pid);
+        }
+    }
+
+    public float getFreeMemoryPercentage() {
+        return ((float) this.freeFrames.getFreeCount() / this.physicalMemory.getNumberOfFrames()) * 100;
+    }
+
+    public Integer getProcessSize(int pid) {
+        ProcessEntry entry = this.processes.get(pid);
+        if (entry == null) return null;
+        return entry.logicalMemory.getSize();
+    }
+
+    public int getFrameOwner(int frame) {
+        return this.frameOwners.get(frame);
+    }
+
+    private static class ProcessEntry {
+        final LogicalMemory logicalMemory;
+        final PagesTable pagesTable;
+        final StampedLock lock = new StampedLock();
+        volatile boolean destroyed;
+
+        ProcessEntry(LogicalMemory logicalMemory, PagesTable pagesTable) {
+            this.logicalMemory = logicalMemory;
+            this.pagesTable = pagesTable;
+        }
+    }
+}
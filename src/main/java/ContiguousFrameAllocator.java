@@ -0,0 +1,116 @@
+// Frame allocator that can also hand out physically contiguous, aligned runs of 2^order frames
+// (huge pages). Single frames still come from the O(1) stack; a buddy-style binary tree on top
+// records, for every aligned block, the largest fully free aligned block inside it, so a run is
+// found in O(log n) and freed frames coalesce with their buddies automatically.
+public class ContiguousFrameAllocator extends FrameAllocator {
+    private final int leaves; // number of frames rounded up to a power of two
+    private final int[] longest; // heap-ordered tree, node 1 is the root, leaf of frame f is leaves + f
+
+    public ContiguousFrameAllocator(int numberOfFrames) {
+        super(numberOfFrames);
+
+        int leaves = 1;
+        while (leaves < numberOfFrames) {
+            leaves <<= 1;
+        }
+        this.leaves = leaves;
+        this.longest = new int[2 * leaves];
+
+        // Padding leaves past the last frame stay 0 (never free)
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            this.longest[leaves + frame] = 1;
+        }
+        for (int node = leaves - 1; node >= 1; node--) {
+            this.updateNode(node, leaves / Integer.highestOneBit(node));
+        }
+    }
+
+    @Override
+    public int allocate() {
+        int frame = super.allocate();
+        if (frame != NO_FRAME) {
+            this.setLeaves(frame, 1, 0);
+        }
+        return frame;
+    }
+
+    @Override
+    public void allocate(int frame) {
+        super.allocate(frame);
+        this.setLeaves(frame, 1, 0);
+    }
+
+    @Override
+    public void free(int frame) {
+        super.free(frame);
+        this.setLeaves(frame, 1, 1);
+    }
+
+    // Returns the first frame of a free aligned run of 2^order frames, or NO_FRAME when
+    // fragmentation leaves no such run. Among fitting blocks the tighter one is split (best fit).
+    public int allocateRun(int order) {
+        int size = 1 << order;
+        if (order < 0 || size > this.leaves) {
+            throw new IllegalArgumentException("Invalid run order: " + order);
+        }
+
+        if (this.longest[1] < size) {
+            return NO_FRAME;
+        }
+
+        int node = 1;
+        for (int nodeSize = this.leaves; nodeSize > size; nodeSize >>= 1) {
+            int left = this.longest[2 * node];
+            int right = this.longest[2 * node + 1];
+            if (left < size || (right >= size && right < left)) {
+                node = 2 * node + 1;
+            } else {
+                node = 2 * node;
+            }
+        }
+
+        int first = node * size - this.leaves;
+        for (int frame = first; frame < first + size; frame++) {
+            this.take(frame);
+        }
+        this.setLeaves(first, size, 0);
+        return first;
+    }
+
+    public void freeRun(int firstFrame, int order) {
+        int size = 1 << order;
+        for (int frame = firstFrame; frame < firstFrame + size; frame++) {
+            super.free(frame);
+        }
+        this.setLeaves(firstFrame, size, 1);
+    }
+
+    // Largest free aligned run currently available, in frames
+    public int getLargestFreeRun() {
+        return this.longest[1];
+    }
+
+    // Rewrites an aligned range of leaves, then recomputes the tree above it level by level
+    private void setLeaves(int first, int count, int value) {
+        for (int leaf = this.leaves + first; leaf < this.leaves + first + count; leaf++) {
+            this.longest[leaf] = value;
+        }
+
+        int from = (this.leaves + first) >> 1;
+        int to = (this.leaves + first + count - 1) >> 1;
+        for (int nodeSize = 2; from >= 1; nodeSize <<= 1) {
+            for (int node = from; node <= to; node++) {
+                this.updateNode(node, nodeSize);
+            }
+            from >>= 1;
+            to >>= 1;
+        }
+    }
+
+    private void updateNode(int node, int nodeSize) {
+        int left = this.longest[2 * node];
+        int right = this.longest[2 * node + 1];
+        int half = nodeSize >> 1;
+        this.longest[node] = (left == half && right == half) ? nodeSize : Math.max(left, right);
+    }
+}
@@ -0,0 +1,116 @@
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+// Resident frames are kept in an intrusive doubly linked list (prev/next arrays),
+// oldest at the head. LruPolicy reuses the same list and only changes onAccess.
+public class FifoPolicy implements ReplacementPolicy {
+    private static final int NONE = -1;
+
+    private int[] prev;
+    private int[] next;
+    private boolean[] resident;
+    private int head = NONE;
+    private int tail = NONE;
+
+    @Override
+    public void init(int numberOfFrames) {
+        this.prev = new int[numberOfFrames];
+        this.next = new int[numberOfFrames];
+        this.resident = new boolean[numberOfFrames];
+        Arrays.fill(this.prev, NONE);
+        Arrays.fill(this.next, NONE);
+        this.head = NONE;
+        this.tail = NONE;
+    }
+
+    @Override
+    public void onLoad(int frame, int pid, int page) {
+        if (this.resident[frame]) {
+            this.unlink(frame);
+        }
+        this.append(frame);
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        // Insertion order only
+    }
+
+    @Override
+    public void onFree(int frame) {
+        if (this.resident[frame]) {
+            this.unlink(frame);
+        }
+    }
+
+    @Override
+    public int selectVictim(IntPredicate evictable) {
+        for (int frame = this.head; frame != NONE; frame = this.next[frame]) {
+            if (evictable.test(frame)) {
+                return frame;
+            }
+        }
+        return NO_VICTIM;
+    }
+
+    @Override
+    public void relocate(int[] newFrames) {
+        // The links are frame numbers too, so they are renamed as well as moved
+        int[] prev = new int[this.prev.length];
+        int[] next = new int[this.next.length];
+        for (int frame = 0; frame < prev.length; frame++) {
+            prev[newFrames[frame]] = (this.prev[frame] == NONE) ? NONE : newFrames[this.prev[frame]];
+            next[newFrames[frame]] = (this.next[frame] == NONE) ? NONE : newFrames[this.next[frame]];
+        }
+        this.prev = prev;
+        this.next = next;
+        this.resident = ReplacementPolicy.permute(this.resident, newFrames);
+        this.head = (this.head == NONE) ? NONE : newFrames[this.head];
+        this.tail = (this.tail == NONE) ? NONE : newFrames[this.tail];
+    }
+
+    @Override
+    public String getName() {
+        return "FIFO";
+    }
+
+    protected void moveToTail(int frame) {
+        if (this.resident[frame] && frame != this.tail) {
+            this.unlink(frame);
+            this.append(frame);
+        }
+    }
+
+    private void append(int frame) {
+        this.prev[frame] = this.tail;
+        this.next[frame] = NONE;
+        if (this.tail == NONE) {
+            this.head = frame;
+        } else {
+            this.next[this.tail] = frame;
+        }
+        this.tail = frame;
+        this.resident[frame] = true;
+    }
+
+    private void unlink(int frame) {
+        int before = this.prev[frame];
+        int after = this.next[frame];
+
+        if (before == NONE) {
+            this.head = after;
+        } else {
+            this.next[before] = after;
+        }
+
+        if (after == NONE) {
+            this.tail = before;
+        } else {
+            this.prev[after] = before;
+        }
+
+        this.prev[frame] = NONE;
+        this.next[frame] = NONE;
+        this.resident[frame] = false;
+    }
+}
@@ -0,0 +1,77 @@
+public class FrameAllocator {
+    public static final int NO_FRAME = -1;
+
+    // Free frames live in an int stack; position[frame] is the frame's index in the stack,
+    // or -1 while it is allocated. Both operations are O(1) and never allocate.
+    private final int[] stack;
+    private final int[] position;
+    private int freeCount;
+
+    public FrameAllocator(int numberOfFrames) {
+        this.stack = new int[numberOfFrames];
+        this.position = new int[numberOfFrames];
+
+        // Pushed in reverse so that frames are handed out in ascending order
+        for (int frame = numberOfFrames - 1; frame >= 0; frame--) {
+            this.push(frame);
+        }
+    }
+
+    public int allocate() {
+        if (this.freeCount == 0) {
+            return NO_FRAME;
+        }
+
+        int frame = this.stack[--this.freeCount];
+        this.position[frame] = -1;
+        return frame;
+    }
+
+    // Allocates one specific frame, e.g. to rebuild a saved frame layout
+    public void allocate(int frame) {
+        this.take(frame);
+    }
+
+    public void free(int frame) {
+        if (this.isFree(frame)) {
+            throw new IllegalStateException("Frame " + frame + " is already free.");
+        }
+
+        this.push(frame);
+    }
+
+    // Takes a specific free frame out of the stack by moving the top frame into its place
+    protected void take(int frame) {
+        int index = this.position[frame];
+        if (index == -1) {
+            throw new IllegalStateException("Frame " + frame + " is not free.");
+        }
+
+        int top = this.stack[--this.freeCount];
+        this.stack[index] = top;
+        this.position[top] = index;
+        this.position[frame] = -1;
+    }
+
+    private void push(int frame) {
+        this.stack[this.freeCount] = frame;
+        this.position[frame] = this.freeCount;
+        this.freeCount++;
+    }
+
+    public boolean isFree(int frame) {
+        if (frame < 0 || frame >= this.position.length) {
+            throw new IllegalArgumentException("Frame out of bounds: " + frame);
+        }
+
+        return this.position[frame] != -1;
+    }
+
+    public int getFreeCount() {
+        return this.freeCount;
+    }
+
+    public int getNumberOfFrames() {
+        return this.position.length;
+    }
+}
@@ -0,0 +1,44 @@
+import java.util.Arrays;
+
+// Default backend: a single on-heap byte[], so at most ~2 GB of simulated RAM.
+public class HeapMemoryBackend implements MemoryBackend {
+    private final byte[] memory;
+
+    public HeapMemoryBackend(int size) {
+        this.memory = new byte[size];
+    }
+
+    @Override
+    public long size() {
+        return this.memory.length;
+    }
+
+    @Override
+    public byte get(long address) {
+        return this.memory[(int) address];
+    }
+
+    @Override
+    public void put(long address, byte data) {
+        this.memory[(int) address] = data;
+    }
+
+    @Override
+    public void read(long address, byte[] dst, int dstOffset, int length) {
+        System.arraycopy(this.memory, (int) address, dst, dstOffset, length);
+    }
+
+    @Override
+    public void write(long address, byte[] src, int srcOffset, int length) {
+        System.arraycopy(src, srcOffset, this.memory, (int) address, length);
+    }
+
+    @Override
+    public void clear(long address, int length) {
+        Arrays.fill(this.memory, (int) address, (int) address + length, (byte) 0);
+    }
+
+    @Override
+    public void close() {
+    }
+}
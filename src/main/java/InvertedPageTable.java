@@ -0,0 +1,185 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Global hashed page table shared by every process, keyed by (pid, page). It is sized
+// by the number of frames instead of by process sizes, and only stores mapped entries
+// (resident or swapped), using linear probing with backward-shift deletion. Protection set
+// on an unmapped page (an entry with nothing but PROTECTION_MASK bits) is kept in a side
+// map instead, so it never takes a slot of the table or counts in getSize().
+// Processes see it through forProcess(), which is also its PageTable.Factory.
+public class InvertedPageTable implements PageTable.Factory {
+    private static final long EMPTY = -1L;
+    private static final float MAX_LOAD = 0.75f;
+
+    private long[] keys;
+    private int[] entries;
+    private int mask;
+    private int size;
+    private final Map<Long, Integer> protections = new HashMap<>(); // unmapped pages with protection bits
+
+    public InvertedPageTable(int numberOfFrames) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) Math.min(1 << 30, numberOfFrames * 2L) - 1)) << 1;
+        this.allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.entries = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = 0;
+        Arrays.fill(this.keys, EMPTY);
+    }
+
+    @Override
+    public PageTable create(int pid, int numberOfPages) {
+        return this.forProcess(pid, numberOfPages);
+    }
+
+    public PageTable forProcess(int pid, int numberOfPages) {
+        return new ProcessView(pid, numberOfPages);
+    }
+
+    private static long key(int pid, int page) {
+        return ((long) pid << 32) | (page & 0xFFFFFFFFL);
+    }
+
+    private int slotOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads consecutive pages
+        return (int) (hash >>> 32) & this.mask;
+    }
+
+    public int get(int pid, int page) {
+        long key = key(pid, page);
+        for (int slot = this.slotOf(key); ; slot = (slot + 1) & this.mask) {
+            long current = this.keys[slot];
+            if (current == key) {
+                return this.entries[slot];
+            }
+            if (current == EMPTY) {
+                return this.protections.isEmpty() ? 0 : this.protections.getOrDefault(key, 0);
+            }
+        }
+    }
+
+    public void put(int pid, int page, int entry) {
+        long key = key(pid, page);
+        if (!this.protections.isEmpty()) {
+            this.protections.remove(key);
+        }
+        if ((entry & ~PageTable.PROTECTION_MASK) == 0) {
+            this.remove(key);
+            if (entry != 0) {
+                this.protections.put(key, entry);
+            }
+            return;
+        }
+
+        int slot = this.slotOf(key);
+        while (this.keys[slot] != EMPTY && this.keys[slot] != key) {
+            slot = (slot + 1) & this.mask;
+        }
+
+        if (this.keys[slot] == EMPTY) {
+            this.keys[slot] = key;
+            this.size++;
+        }
+        this.entries[slot] = entry;
+
+        if (this.size > this.keys.length * MAX_LOAD) {
+            this.resize();
+        }
+    }
+
+    private void remove(long key) {
+        int slot = this.slotOf(key);
+        while (this.keys[slot] != key) {
+            if (this.keys[slot] == EMPTY) {
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+
+        // Backward-shift: pull later entries of the probe chain into the hole
+        int hole = slot;
+        for (int next = (hole + 1) & this.mask; this.keys[next] != EMPTY; next = (next + 1) & this.mask) {
+            int home = this.slotOf(this.keys[next]);
+            if (((next - home) & this.mask) >= ((next - hole) & this.mask)) {
+                this.keys[hole] = this.keys[next];
+                this.entries[hole] = this.entries[next];
+                hole = next;
+            }
+        }
+        this.keys[hole] = EMPTY;
+        this.entries[hole] = 0;
+        this.size--;
+    }
+
+    private void resize() {
+        long[] oldKeys = this.keys;
+        int[] oldEntries = this.entries;
+        this.allocate(oldKeys.length * 2);
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                this.put((int) (oldKeys[slot] >>> 32), (int) oldKeys[slot], oldEntries[slot]);
+            }
+        }
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    // Object header + fields, plus 12 B (long key + int entry) per slot and about 64 B per
+    // boxed HashMap node of a protection-only page
+    public long getFootprintBytes() {
+        return 40 + 2 * 16 + 12L * this.keys.length + 64L * this.protections.size();
+    }
+
+    private class ProcessView implements PageTable {
+        private final int pid;
+        private final int numberOfPages;
+
+        ProcessView(int pid, int numberOfPages) {
+            this.pid = pid;
+            this.numberOfPages = numberOfPages;
+        }
+
+        @Override
+        public int getEntry(int pageNumber) {
+            this.checkPageNumber(pageNumber);
+            return InvertedPageTable.this.get(this.pid, pageNumber);
+        }
+
+        @Override
+        public void setEntry(int pageNumber, int entry) {
+            this.checkPageNumber(pageNumber);
+            InvertedPageTable.this.put(this.pid, pageNumber, entry);
+        }
+
+        private void checkPageNumber(int pageNumber) {
+            if (pageNumber < 0 || pageNumber >= this.numberOfPages) {
+                throw new IllegalArgumentException("Page number out of bounds: " + pageNumber);
+            }
+        }
+
+        @Override
+        public int getNumberOfPages() {
+            return this.numberOfPages;
+        }
+
+        // Only the view itself; the shared table is reported by InvertedPageTable.getFootprintBytes()
+        @Override
+        public long getFootprintBytes() {
+            return 24;
+        }
+
+        @Override
+        public void release() {
+            for (int page = 0; page < this.numberOfPages; page++) {
+                InvertedPageTable.this.put(this.pid, page, 0);
+            }
+        }
+    }
+}
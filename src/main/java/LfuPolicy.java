@@ -0,0 +1,64 @@
+import java.util.function.IntPredicate;
+
+// Evicts the resident frame with the fewest accesses since it was loaded,
+// breaking ties by load order (oldest first).
+public class LfuPolicy implements ReplacementPolicy {
+    private long[] accessCount;
+    private long[] loadedAt;
+    private boolean[] resident;
+    private long loadCounter;
+
+    @Override
+    public void init(int numberOfFrames) {
+        this.accessCount = new long[numberOfFrames];
+        this.loadedAt = new long[numberOfFrames];
+        this.resident = new boolean[numberOfFrames];
+        this.loadCounter = 0;
+    }
+
+    @Override
+    public void onLoad(int frame, int pid, int page) {
+        this.resident[frame] = true;
+        this.accessCount[frame] = 0;
+        this.loadedAt[frame] = ++this.loadCounter;
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        this.accessCount[frame]++;
+    }
+
+    @Override
+    public void onFree(int frame) {
+        this.resident[frame] = false;
+    }
+
+    @Override
+    public int selectVictim(IntPredicate evictable) {
+        int victim = NO_VICTIM;
+        for (int frame = 0; frame < this.resident.length; frame++) {
+            if (!this.resident[frame] || !evictable.test(frame)) {
+                continue;
+            }
+
+            if (victim == NO_VICTIM
+                    || this.accessCount[frame] < this.accessCount[victim]
+                    || (this.accessCount[frame] == this.accessCount[victim] && this.loadedAt[frame] < this.loadedAt[victim])) {
+                victim = frame;
+            }
+        }
+        return victim;
+    }
+
+    @Override
+    public void relocate(int[] newFrames) {
+        this.accessCount = ReplacementPolicy.permute(this.accessCount, newFrames);
+        this.loadedAt = ReplacementPolicy.permute(this.loadedAt, newFrames);
+        this.resident = ReplacementPolicy.permute(this.resident, newFrames);
+    }
+
+    @Override
+    public String getName() {
+        return "LFU";
+    }
+}
@@ -1,28 +1,30 @@
-import java.util.Random;
-
 public class LogicalMemory {
-    private final byte[] logicalMemory;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int size;
     private final int pid;
     private final int pageSize;
     private final int numberOfPages;
+    private final long seed;
 
-    public LogicalMemory(int pid, int processLength, int pageSize) {
+    // Process content is not stored: every byte is a pure function of (seed, address),
+    // generated on demand in 1..100 (avoiding 0). The same seed always yields the same image.
+    public LogicalMemory(int pid, int processLength, int pageSize, long seed) {
         this.pid = pid;
-        this.logicalMemory = new byte[processLength];
+        this.size = processLength;
         this.pageSize = pageSize;
-
-        // Fills bytes array randomly, avoiding 0
-        Random random = new Random();
-        for (int i = 0; i < processLength; i++) {
-            this.logicalMemory[i] = (byte) (random.nextInt(100) + 1);
-        }
+        this.seed = seed;
 
         this.numberOfPages = this.calculateNumberOfPages();
     }
 
+    public LogicalMemory(int pid, int processLength, int pageSize) {
+        this(pid, processLength, pageSize, System.nanoTime() ^ ((long) pid * GOLDEN_GAMMA));
+    }
+
 
     public int getPageByAddress(int logicalAddress) {
-        if (logicalAddress < 0 || logicalAddress >= this.logicalMemory.length) {
+        if (logicalAddress < 0 || logicalAddress >= this.size) {
             throw new IllegalArgumentException("Logical address out of bounds: " + logicalAddress);
         }
 
@@ -30,7 +32,7 @@ public class LogicalMemory {
     }
 
     public int getOffsetByAddress(int logicalAddress) {
-        if (logicalAddress < 0 || logicalAddress >= this.logicalMemory.length) {
+        if (logicalAddress < 0 || logicalAddress >= this.size) {
             throw new IllegalArgumentException("Logical address out of bounds: " + logicalAddress);
         }
 
@@ -46,21 +48,59 @@ public class LogicalMemory {
     }
 
     public byte readByte(int logicalAddress) {
-        if (logicalAddress < 0 || logicalAddress >= this.logicalMemory.length) {
+        if (logicalAddress < 0 || logicalAddress >= this.size) {
             throw new IllegalArgumentException("Logical address out of bounds: " + logicalAddress);
         }
 
-        return this.logicalMemory[logicalAddress];
+        long block = this.hashBlock(logicalAddress >>> 3);
+        return toContentByte(block >>> ((logicalAddress & 7) << 3));
+    }
+
+    public void read(int logicalAddress, byte[] dst, int dstOffset, int length) {
+        if (logicalAddress < 0 || length < 0 || logicalAddress > this.size - length) {
+            throw new IllegalArgumentException("Logical address out of bounds: " + logicalAddress + " (+" + length + ")");
+        }
+
+        // One hash yields the 8 bytes of an aligned block
+        int end = logicalAddress + length;
+        int address = logicalAddress;
+        while (address < end) {
+            long block = this.hashBlock(address >>> 3);
+            int blockEnd = Math.min(end, (address | 7) + 1);
+            for (; address < blockEnd; address++) {
+                dst[dstOffset++] = toContentByte(block >>> ((address & 7) << 3));
+            }
+        }
+    }
+
+    // SplitMix64 finalizer over (seed, block index)
+    private long hashBlock(int blockIndex) {
+        long z = this.seed + (blockIndex + 1L) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static byte toContentByte(long bits) {
+        return (byte) ((bits & 0xFF) % 100 + 1);
     }
 
     private int calculateNumberOfPages() {
-        return (this.logicalMemory.length + pageSize - 1) / this.pageSize;
+        return (this.size + pageSize - 1) / this.pageSize;
     }
     public int getNumberOfPages() {
         return this.numberOfPages;
     }
 
+    public int getPid() {
+        return this.pid;
+    }
+
     public int getSize() {
-        return this.logicalMemory.length;
+        return this.size;
+    }
+
+    public long getSeed() {
+        return this.seed;
     }
 }
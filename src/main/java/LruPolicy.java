@@ -0,0 +1,12 @@
+public class LruPolicy extends FifoPolicy {
+    @Override
+    public void onAccess(int frame) {
+        // Most recently used frames move to the tail, the head is the LRU victim
+        this.moveToTail(frame);
+    }
+
+    @Override
+    public String getName() {
+        return "LRU";
+    }
+}
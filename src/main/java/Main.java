@@ -1,8 +1,27 @@
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
 
 public class Main {
+    private static final int FULL_MAP_MAX_FRAMES = 256;
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--replay")) {
+            replayTrace(args);
+            return;
+        }
+        if (args.length > 0 && args[0].startsWith("--")) {
+            runFromCommandLine(args);
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
 
         System.out.println("=== MEMORY MANAGEMENT SIMULATOR (PAGING) ===");
@@ -29,7 +48,50 @@ public class Main {
             return;
         }
 
+        System.out.print("Page replacement (0 = none, eager allocation; 1 = FIFO; 2 = LRU; 3 = Clock; 4 = LFU): ");
+        int replacementOption = scanner.nextInt();
+        String[] policies = {"FIFO", "LRU", "CLOCK", "LFU"};
+        if (replacementOption < 0 || replacementOption > policies.length) {
+            System.out.println("Error: Invalid page replacement option!");
+            return;
+        }
+
         MemoryManager memoryManager = new MemoryManager(physicalSize, pageSize, maxProcessSize);
+        if (replacementOption > 0) {
+            memoryManager.enableDemandPaging(ReplacementPolicy.byName(policies[replacementOption - 1]));
+        } else {
+            System.out.print("Huge page size in base pages (0 = off, e.g. 4, 512): ");
+            int hugePageSize = scanner.nextInt();
+            if (hugePageSize != 0) {
+                try {
+                    memoryManager.enableHugePages(hugePageSize);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Error: " + e.getMessage());
+                    return;
+                }
+            }
+        }
+
+        if (!memoryManager.isHugePages()) {
+            System.out.print("NUMA nodes (1 = single memory bank): ");
+            int nodes = scanner.nextInt();
+            if (nodes > 1) {
+                System.out.print("Spill policy when the home node is full (0 = strict, 1 = next node, 2 = most free): ");
+                int spillOption = scanner.nextInt();
+                NumaFrameAllocator.SpillPolicy[] spillPolicies = NumaFrameAllocator.SpillPolicy.values();
+                if (spillOption < 0 || spillOption >= spillPolicies.length) {
+                    System.out.println("Error: Invalid spill policy!");
+                    return;
+                }
+
+                try {
+                    memoryManager.enableNuma(nodes, spillPolicies[spillOption]);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Error: " + e.getMessage());
+                    return;
+                }
+            }
+        }
 
         int option = 0;
         do {
@@ -39,6 +101,15 @@ public class Main {
             System.out.println("2. View Physical Memory (Frame Map)");
             System.out.println("3. View Process Page Table");
             System.out.println("4. Read Logical Address (Simulate MMU)");
+            System.out.println("5. Terminate Process");
+            System.out.println("6. Fork Process (Copy-on-Write)");
+            System.out.println("7. Deduplicate Identical Pages");
+            System.out.println("8. Save Memory Snapshot");
+            System.out.println("9. Compact Physical Memory");
+            System.out.println("10. Working Sets (Aging Sweep)");
+            System.out.println("11. Write Logical Address");
+            System.out.println("12. Set Page Protection");
+            System.out.println("13. NUMA Locality Report");
             System.out.println("0. Exit");
             System.out.print("Choose an option: ");
 
@@ -54,7 +125,7 @@ public class Main {
                     createProcessUI(scanner, memoryManager);
                     break;
                 case 2:
-                    visualizeMemoryUI(memoryManager);
+                    visualizeMemoryUI(scanner, memoryManager);
                     break;
                 case 3:
                     visualizePagesTableUI(scanner, memoryManager);
@@ -62,6 +133,34 @@ public class Main {
                 case 4:
                     readLogicalAddressUI(scanner, memoryManager);
                     break;
+                case 5:
+                    destroyProcessUI(scanner, memoryManager);
+                    break;
+                case 6:
+                    forkProcessUI(scanner, memoryManager);
+                    break;
+                case 7:
+                    deduplicateUI(memoryManager);
+                    break;
+                case 8:
+                    saveSnapshotUI(scanner, memoryManager);
+                    break;
+                case 9:
+                    System.out.println("\n[MEMORY COMPACTION]");
+                    System.out.println(memoryManager.compact());
+                    break;
+                case 10:
+                    workingSetsUI(memoryManager);
+                    break;
+                case 11:
+                    writeLogicalAddressUI(scanner, memoryManager);
+                    break;
+                case 12:
+                    setProtectionUI(scanner, memoryManager);
+                    break;
+                case 13:
+                    numaReportUI(memoryManager);
+                    break;
                 case 0:
                     System.out.println("Exiting simulator...");
                     break;
@@ -89,15 +188,43 @@ public class Main {
         }
     }
 
-    private static void visualizeMemoryUI(MemoryManager manager) {
+    private static void visualizeMemoryUI(Scanner scanner, MemoryManager manager) {
         System.out.println("\n[PHYSICAL MEMORY VISUALIZATION]");
         float freePercent = manager.getFreeMemoryPercentage();
         System.out.printf("Free Memory: %.2f%%\n", freePercent);
-        System.out.println("Frame Map:");
+        if (manager.isDemandPaging()) {
+            System.out.printf("Page Faults (%s): %d, evictions: %d, swap outs: %d, avg fault: %.0f ns\n",
+                    manager.getReplacementPolicy().getName(), manager.getPageFaults(), manager.getPageEvictions(),
+                    manager.getSwapOuts(), manager.getAveragePageFaultNanos());
+        }
+
+        // Streams straight to stdout; big memories get the summary plus a chosen frame range
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+        try {
+            int numberOfFrames = manager.getNumberOfFrames();
+            if (numberOfFrames <= FULL_MAP_MAX_FRAMES) {
+                out.append("Frame Map:\n");
+                manager.writeMemoryReport(out);
+                out.flush();
+                return;
+            }
+
+            out.append("Summary:\n");
+            manager.writeMemoryReportSummary(out);
+            out.flush();
+
+            System.out.print("First frame to show (0 to " + (numberOfFrames - 1) + "): ");
+            int fromFrame = scanner.nextInt();
+            System.out.print("Number of frames to show: ");
+            int count = scanner.nextInt();
 
-        List<String> report = manager.getMemoryReport();
-        for (String line : report) {
-            System.out.println(line);
+            out.append("Frame Map:\n");
+            manager.writeMemoryReport(out, fromFrame, (int) Math.min((long) fromFrame + count, numberOfFrames));
+            out.flush();
+        } catch (IOException e) {
+            System.out.println("Error writing report: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
         }
     }
 
@@ -139,6 +266,208 @@ public class Main {
         }
     }
 
+    private static void writeLogicalAddressUI(Scanner scanner, MemoryManager manager) {
+        System.out.println("\n[WRITE LOGICAL ADDRESS]");
+        System.out.print("Enter Process PID: ");
+        int pid = scanner.nextInt();
+
+        Integer processSize = manager.getProcessSize(pid);
+        if (processSize == null) {
+            System.out.println("Error: Process not found!");
+            return;
+        }
+
+        System.out.print("Enter logical address (0 to " + (processSize - 1) + "): ");
+        int logicalAddress = scanner.nextInt();
+        System.out.print("Enter value (-128 to 127): ");
+        int value = scanner.nextInt();
+
+        try {
+            manager.writeByLogicalAddress(pid, logicalAddress, (byte) value);
+            System.out.println("Success! Wrote " + (byte) value + " to logical address " + logicalAddress + ".");
+        } catch (Exception e) {
+            System.out.println("Write error: " + e.getMessage());
+        }
+    }
+
+    private static void setProtectionUI(Scanner scanner, MemoryManager manager) {
+        System.out.println("\n[SET PAGE PROTECTION]");
+        System.out.print("Enter Process PID: ");
+        int pid = scanner.nextInt();
+        System.out.print("Enter start logical address: ");
+        int logicalAddress = scanner.nextInt();
+        System.out.print("Enter length in bytes: ");
+        int length = scanner.nextInt();
+        System.out.print("Enter protection (R=1, W=2, X=4, e.g. 5 = read + execute): ");
+        int protection = scanner.nextInt();
+
+        try {
+            manager.setProtection(pid, logicalAddress, length, protection);
+            System.out.println("Success! Protection updated.");
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private static void destroyProcessUI(Scanner scanner, MemoryManager manager) {
+        System.out.println("\n[TERMINATE PROCESS]");
+        System.out.print("Enter Process PID: ");
+        int pid = scanner.nextInt();
+
+        try {
+            manager.destroyProcess(pid);
+            System.out.println("Success! Process " + pid + " terminated and its frames were released.");
+        } catch (Exception e) {
+            System.out.println("ERROR terminating process: " + e.getMessage());
+        }
+    }
+
+    private static void forkProcessUI(Scanner scanner, MemoryManager manager) {
+        System.out.println("\n[FORK PROCESS]");
+        System.out.print("Enter parent PID: ");
+        int parentPid = scanner.nextInt();
+        System.out.print("Enter child PID: ");
+        int childPid = scanner.nextInt();
+
+        try {
+            manager.fork(parentPid, childPid);
+            System.out.println("Success! Process " + childPid + " forked from " + parentPid
+                    + " (" + manager.getSharedFrames() + " frames shared copy-on-write).");
+        } catch (Exception e) {
+            System.out.println("ERROR forking process: " + e.getMessage());
+        }
+    }
+
+    private static void deduplicateUI(MemoryManager manager) {
+        System.out.println("\n[PAGE DEDUPLICATION]");
+        int saved = manager.deduplicate(0, manager.getNumberOfFrames());
+        System.out.println("Frames freed by this pass: " + saved
+                + " (total " + manager.getDedupFramesSaved() + ", " + manager.getSharedFrames() + " shared frames now).");
+    }
+
+    private static void workingSetsUI(MemoryManager manager) {
+        System.out.println("\n[WORKING SETS]");
+        manager.agingSweep();
+        System.out.println("Sweep " + manager.getAgingSweeps() + ", window of " + manager.getWorkingSetWindow() + " sweeps:");
+        for (MemoryManager.WorkingSet workingSet : manager.getWorkingSets().values()) {
+            System.out.println(workingSet);
+        }
+    }
+
+    private static void numaReportUI(MemoryManager manager) {
+        System.out.println("\n[NUMA LOCALITY]");
+        if (!manager.isNuma()) {
+            System.out.println("Memory is a single bank (NUMA nodes are off).");
+            return;
+        }
+
+        for (MemoryManager.NumaStats stats : manager.getNumaStats().values()) {
+            System.out.println(stats);
+        }
+        System.out.println("Remote access penalty charged: " + manager.getRemotePenaltyNanos() + " ns ("
+                + manager.getRemoteAccessPenaltyNanos() + " ns per remote access).");
+    }
+
+    private static void saveSnapshotUI(Scanner scanner, MemoryManager manager) {
+        System.out.println("\n[SAVE MEMORY SNAPSHOT]");
+        System.out.print("Enter file path: ");
+        String path = scanner.next();
+
+        try {
+            manager.saveSnapshot(Paths.get(path));
+            System.out.println("Success! Memory state saved to " + path + " (restore with MemoryManager.fromSnapshot).");
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("ERROR saving snapshot: " + e.getMessage());
+        }
+    }
+
+    // java Main --replay <trace file> <physical size> <page size> <max process size> [FIFO|LRU|CLOCK|LFU]
+    private static void replayTrace(String[] args) {
+        if (args.length < 5) {
+            System.out.println("Usage: java Main --replay <trace file> <physical size> <page size> <max process size> [policy]");
+            return;
+        }
+
+        try {
+            int physicalSize = Integer.parseInt(args[2]);
+            int pageSize = Integer.parseInt(args[3]);
+            int maxProcessSize = Integer.parseInt(args[4]);
+            if (!isPowerOfTwo(physicalSize) || !isPowerOfTwo(pageSize) || !isPowerOfTwo(maxProcessSize)) {
+                System.out.println("Error: Memory, page and maximum process sizes must be powers of 2!");
+                return;
+            }
+
+            try (MemoryManager memoryManager = new MemoryManager(physicalSize, pageSize, maxProcessSize);
+                 Reader trace = new FileReader(args[1])) {
+                if (args.length > 5) {
+                    memoryManager.enableDemandPaging(ReplacementPolicy.byName(args[5]));
+                }
+
+                TraceReplayer.ReplayResult result = new TraceReplayer(memoryManager).replay(trace);
+                System.out.print(result);
+                if (MemoryMetrics.ENABLED) {
+                    System.out.println("--- Metrics ---");
+                    System.out.println(memoryManager.getMetricsSnapshot());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading trace: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            // Also covers non-numeric sizes (NumberFormatException) and unknown policy names
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    // java Main --run|--sweep [options], see CommandLineOptions.USAGE. A single configuration prints
+    // a readable report; --sweep (or several values of memory, page or policy) prints a CSV.
+    private static void runFromCommandLine(String[] args) {
+        if (args[0].equals("--help")) {
+            System.out.println(CommandLineOptions.USAGE);
+            return;
+        }
+
+        CommandLineOptions options;
+        try {
+            options = CommandLineOptions.parse(args);
+        } catch (IOException e) {
+            System.out.println("Error reading config file: " + e.getMessage());
+            return;
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
+
+        SweepRunner runner = new SweepRunner(options);
+        List<SweepRunner.Configuration> configurations = options.getConfigurations();
+        if (!options.isSweep() && configurations.size() == 1) {
+            SweepRunner.Result result = runner.run(configurations.get(0));
+            if (result.getError() != null) {
+                System.out.println("Error: " + result.getError());
+            } else {
+                System.out.print(result.getReplay());
+            }
+            return;
+        }
+
+        try {
+            List<SweepRunner.Result> results = runner.run(configurations, options.getThreads());
+            if (options.getOutput() == null) {
+                Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+                SweepRunner.writeCsv(results, out);
+                out.flush();
+            } else {
+                try (Writer out = Files.newBufferedWriter(options.getOutput())) {
+                    SweepRunner.writeCsv(results, out);
+                }
+                System.out.println(results.size() + " configurations written to " + options.getOutput());
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing results: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static boolean isPowerOfTwo(int n) {
         return n > 0 && Integer.bitCount(n) == 1;
     }
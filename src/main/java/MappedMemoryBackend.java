@@ -0,0 +1,133 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Off-heap backend: the RAM is a file mapped into memory in 1 GB chunks, so its size
+// is only limited by address space and disk, and none of it lives on the Java heap.
+// A persistent backend keeps the file (the RAM image) after close; otherwise it is deleted.
+public class MappedMemoryBackend implements MemoryBackend {
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final byte[] ZEROS = new byte[4096];
+
+    private final Path file;
+    private final boolean persistent;
+    private final long size;
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+
+    public MappedMemoryBackend(Path file, long size, boolean persistent) {
+        this.file = file;
+        this.persistent = persistent;
+        this.size = size;
+
+        try {
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (this.channel.size() > size) {
+                this.channel.truncate(size);
+            }
+
+            int numberOfChunks = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+            this.chunks = new MappedByteBuffer[numberOfChunks];
+            for (int i = 0; i < numberOfChunks; i++) {
+                long start = (long) i << CHUNK_BITS;
+                // Mapping past the end grows the (sparse) file to the requested size
+                this.chunks[i] = this.channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(CHUNK_SIZE, size - start));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map physical memory file " + file, e);
+        }
+    }
+
+    // Non-persistent RAM in a temporary file
+    public static MappedMemoryBackend temporary(long size) {
+        try {
+            return new MappedMemoryBackend(Files.createTempFile("physical-memory", ".ram"), size, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create temporary physical memory file", e);
+        }
+    }
+
+    @Override
+    public long size() {
+        return this.size;
+    }
+
+    @Override
+    public byte get(long address) {
+        return this.chunks[(int) (address >>> CHUNK_BITS)].get((int) (address & CHUNK_MASK));
+    }
+
+    @Override
+    public void put(long address, byte data) {
+        this.chunks[(int) (address >>> CHUNK_BITS)].put((int) (address & CHUNK_MASK), data);
+    }
+
+    @Override
+    public void read(long address, byte[] dst, int dstOffset, int length) {
+        while (length > 0) {
+            int offset = (int) (address & CHUNK_MASK);
+            int chunk = (int) Math.min(length, CHUNK_SIZE - offset);
+            this.chunks[(int) (address >>> CHUNK_BITS)].get(offset, dst, dstOffset, chunk);
+
+            address += chunk;
+            dstOffset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void write(long address, byte[] src, int srcOffset, int length) {
+        while (length > 0) {
+            int offset = (int) (address & CHUNK_MASK);
+            int chunk = (int) Math.min(length, CHUNK_SIZE - offset);
+            this.chunks[(int) (address >>> CHUNK_BITS)].put(offset, src, srcOffset, chunk);
+
+            address += chunk;
+            srcOffset += chunk;
+            length -= chunk;
+        }
+    }
+
+    @Override
+    public void clear(long address, int length) {
+        while (length > 0) {
+            int chunk = Math.min(length, ZEROS.length);
+            this.write(address, ZEROS, 0, chunk);
+            address += chunk;
+            length -= chunk;
+        }
+    }
+
+    // Writes dirty pages of the RAM image back to the file
+    public void force() {
+        for (MappedByteBuffer chunk : this.chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (this.persistent) {
+                this.force();
+            }
+            this.channel.close();
+            if (!this.persistent) {
+                Files.deleteIfExists(this.file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close physical memory file " + this.file, e);
+        }
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+}
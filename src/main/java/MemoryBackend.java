@@ -0,0 +1,19 @@
+// Raw storage behind PhysicalMemory. Addresses are longs so backends are not limited
+// to a single Java array; PhysicalMemory does all bounds checking before calling in.
+public interface MemoryBackend extends AutoCloseable {
+    long size();
+
+    byte get(long address);
+
+    void put(long address, byte data);
+
+    void read(long address, byte[] dst, int dstOffset, int length);
+
+    void write(long address, byte[] src, int srcOffset, int length);
+
+    void clear(long address, int length);
+
+    // Releases the storage; backends without external resources may ignore it
+    @Override
+    void close();
+}
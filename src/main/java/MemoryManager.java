@@ -1,31 +1,276 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+public class MemoryManager implements AutoCloseable {
+    // Decimal text of every byte value, so streaming frame contents never allocates
+    private static final String[] BYTE_STRINGS = new String[256];
+    static {
+        for (int i = 0; i < 256; i++) {
+            BYTE_STRINGS[i] = String.valueOf(i - 128);
+        }
+    }
 
-public class MemoryManager {
     private final PhysicalMemory physicalMemory;
-    private final int physicalMemorySize;
+    private final long physicalMemorySize;
     private final int pageSize;
     private final int maxProcessSize;
-    private final Queue<Integer> freeFrames = new LinkedList<>();
+    private FrameAllocator freeFrames;
     private final Map<Integer, LogicalMemory> logicalMemoriesMap = new HashMap<>();
-    private final Map<Integer, PagesTable> pagesTableMap = new HashMap<>();
+    private final Map<Integer, PageTable> pagesTableMap = new HashMap<>();
+    private PageTable.Factory pageTableFactory = (pid, numberOfPages) -> new PagesTable(numberOfPages);
     private final FrameState[] framesState; // "Frame Table"
+    private final IntPredicate evictable; // private frames are evicted before shared (copy-on-write) ones
+    private long seed = new SplittableRandom().nextLong(); // process images derive from it, see setSeed
+    private Tlb tlb; // optional, null means every translation walks the page table
+
+    // Demand paging (null policy = eager allocation of every page in createProcess)
+    private ReplacementPolicy replacementPolicy;
+    private SwapSpace swapSpace;
+    private final byte[] pageBuffer;
+    private final ThreadLocal<byte[]> copyBuffers; // page buffers of the parallel image copies
+    private long pageFaults;
+    private long pageFaultNanos;
+    private long pageEvictions;
+    private long swapOuts;
+    private long swapIns;
+    private long forks;
+    private long copyOnWriteFaults;
+    private long protectionFaults;
+
+    // Huge pages (eager mode only): aligned runs of 2^hugePageOrder frames from a buddy-style allocator
+    private ContiguousFrameAllocator contiguousFrames; // null while huge pages are off
+    private int hugePageOrder;
+    private long hugePagesGranted;
+    private long hugePageFallbacks;
+
+    // Same-page merging: content hash -> frame last seen with that content (verified before merging)
+    private final Map<Integer, Integer> dedupIndex = new HashMap<>();
+    private byte[] compareBuffer; // second page buffer, allocated on the first dedup pass
+    private int dedupCursor;
+    private long dedupFramesSaved;
+
+    // Working sets: REFERENCED is set by page table walks, and each aging sweep shifts it into a
+    // per-page history (bit 0 = last sweep). A page belongs to the working set if it was
+    // referenced in any of the last workingSetWindow sweeps.
+    private final Map<Integer, int[]> referenceHistory = new HashMap<>();
+    private int workingSetWindow = 8;
+    private long agingInterval; // translations between automatic sweeps, 0 = sweep only on demand
+    private long translationsSinceSweep;
+    private long agingSweeps;
+
+    // NUMA: the frames are split into nodes and every process allocates from its home node first
+    private NumaFrameAllocator numaFrames; // null while memory is a single bank
+    private final Map<Integer, NumaStats> numaStats = new HashMap<>();
+    private NumaStats lastNumaStats; // translations come in runs of one process, this skips the map lookup
+    private int nextHomeNode; // default placement: round-robin over the nodes
+    private long remoteAccessPenaltyNanos = 60;
+    private long remotePenaltyNanos; // charged by every translation to a remote frame
+
+    private final MemoryMetrics metrics = new MemoryMetrics();
 
     public MemoryManager(int physicalMemorySize, int pageSize, int maxProcessSize) {
-        this.physicalMemorySize = physicalMemorySize;
-        this.physicalMemory = new PhysicalMemory(physicalMemorySize, pageSize);
+        this(new PhysicalMemory(physicalMemorySize, pageSize), maxProcessSize);
+    }
 
+    // Allows other backends, e.g. new PhysicalMemory(MappedMemoryBackend.temporary(size), pageSize)
+    public MemoryManager(PhysicalMemory physicalMemory, int maxProcessSize) {
+        this.physicalMemorySize = physicalMemory.getSize();
+        this.physicalMemory = physicalMemory;
+
+        int pageSize = physicalMemory.getFrameSize();
         this.pageSize = pageSize;
         this.maxProcessSize = maxProcessSize;
+        this.pageBuffer = new byte[pageSize];
+        this.copyBuffers = ThreadLocal.withInitial(() -> new byte[pageSize]);
 
         int numberOfFrames = physicalMemory.getNumberOfFrames();
+        if (numberOfFrames > PageTable.MAX_FRAMES) {
+            throw new IllegalArgumentException(
+                    "Too many frames (" + numberOfFrames + "), the page table supports up to " + PageTable.MAX_FRAMES + "."
+            );
+        }
+
+        this.freeFrames = new FrameAllocator(numberOfFrames);
         this.framesState = new FrameState[numberOfFrames];
         for (int i = 0; i < numberOfFrames; i++) {
-            this.freeFrames.add(i);
             this.framesState[i] = new FrameState(i);
         }
+        this.evictable = frame -> this.framesState[frame].referenceCount == 1;
     }
 
     public void createProcess(int pid, int processLength) {
+        this.createProcess(pid, processLength, this.numaFrames == null ? 0 : this.nextHomeNode);
+        this.advanceHomeNode(1);
+    }
+
+    // With NUMA nodes, the frames of the process come from homeNode first (see enableNuma)
+    public void createProcess(int pid, int processLength, int homeNode) {
+        this.checkNewProcess(pid, processLength);
+        this.checkHomeNode(homeNode);
+
+        long start = MemoryMetrics.ENABLED ? System.nanoTime() : 0;
+        LogicalMemory logicalMemory = new LogicalMemory(pid, processLength, this.pageSize, this.seed ^ (pid * 0x9E3779B97F4A7C15L));
+        int numberOfPages = logicalMemory.getNumberOfPages();
+
+        // Checked before anything is allocated, so a failure leaves no trace
+        if (this.replacementPolicy == null && this.getAvailableFrames(homeNode) < numberOfPages) {
+            this.metrics.recordFailedAllocation();
+            throw new IllegalStateException("Cannot create process: Not enough free frames available.");
+        }
+
+        // With demand paging pages are loaded on first access
+        this.assignHomeNode(pid, homeNode);
+        PageTable pagesTable = this.pageTableFactory.create(pid, numberOfPages);
+        if (this.replacementPolicy == null) {
+            int[] allocatedFrames = this.allocateProcessFrames(pid, numberOfPages);
+            for (int page = 0; page < numberOfPages; page++) {
+                pagesTable.setEntry(page, allocatedFrames[page] | PageTable.VALID);
+                this.loadPageFromImage(logicalMemory, page, allocatedFrames[page] & PageTable.FRAME_MASK, this.pageBuffer);
+            }
+            this.metrics.recordFrameAllocations(numberOfPages);
+        }
+
+        this.logicalMemoriesMap.put(pid, logicalMemory);
+        this.pagesTableMap.put(pid, pagesTable);
+        if (MemoryMetrics.ENABLED) {
+            this.metrics.recordProcessCreated(System.nanoTime() - start, this.internalFragmentation(logicalMemory));
+        }
+    }
+
+    // Admits a whole batch or none of it: every spec is validated and the frames of the whole
+    // batch are checked and reserved in one pass before any process becomes visible.
+    // The process images are then copied into their frames in parallel.
+    public void createProcesses(List<ProcessSpec> specs) {
+        long start = MemoryMetrics.ENABLED ? System.nanoTime() : 0;
+        int count = specs.size();
+        LogicalMemory[] logicalMemories = new LogicalMemory[count];
+        int[] homeNodes = new int[count];
+        long[] pagesPerNode = new long[this.numaFrames == null ? 1 : this.numaFrames.getNumberOfNodes()];
+        Set<Integer> batchPids = new HashSet<>();
+        long totalPages = 0;
+        for (int i = 0; i < count; i++) {
+            ProcessSpec spec = specs.get(i);
+            this.checkNewProcess(spec.getPid(), spec.getSize());
+            if (!batchPids.add(spec.getPid())) {
+                throw new IllegalArgumentException("Process ID " + spec.getPid() + " appears more than once in the batch.");
+            }
+
+            logicalMemories[i] = new LogicalMemory(spec.getPid(), spec.getSize(), this.pageSize, this.seed ^ (spec.getPid() * 0x9E3779B97F4A7C15L));
+            totalPages += logicalMemories[i].getNumberOfPages();
+            homeNodes[i] = (this.numaFrames == null) ? 0 : (this.nextHomeNode + i) % pagesPerNode.length;
+            pagesPerNode[homeNodes[i]] += logicalMemories[i].getNumberOfPages();
+        }
+
+        boolean framesAvailable = this.freeFrames.getFreeCount() >= totalPages;
+        for (int node = 0; node < pagesPerNode.length; node++) {
+            framesAvailable &= this.getAvailableFrames(node) >= pagesPerNode[node];
+        }
+        if (this.replacementPolicy == null && !framesAvailable) {
+            this.metrics.recordFailedAllocation();
+            throw new IllegalStateException(
+                    "Cannot create processes: Not enough free frames available (" + totalPages + " needed, "
+                            + this.freeFrames.getFreeCount() + " free)."
+            );
+        }
+
+        PageTable[] pagesTables = new PageTable[count];
+        int[][] allocatedFrames = new int[count][];
+        try {
+            for (int i = 0; i < count; i++) {
+                int pid = logicalMemories[i].getPid();
+                int numberOfPages = logicalMemories[i].getNumberOfPages();
+                this.assignHomeNode(pid, homeNodes[i]);
+                pagesTables[i] = this.pageTableFactory.create(pid, numberOfPages);
+                if (this.replacementPolicy == null) {
+                    allocatedFrames[i] = this.allocateProcessFrames(pid, numberOfPages);
+                    for (int page = 0; page < numberOfPages; page++) {
+                        pagesTables[i].setEntry(page, allocatedFrames[i][page] | PageTable.VALID);
+                    }
+                }
+            }
+
+            // Frames are disjoint, so each process is copied by its own task with its own page buffer.
+            // A backend failure here still rolls back the whole batch.
+            if (this.replacementPolicy == null) {
+                IntStream.range(0, count).parallel().forEach(i -> {
+                    byte[] buffer = this.copyBuffers.get();
+                    for (int page = 0; page < allocatedFrames[i].length; page++) {
+                        this.loadPageFromImage(logicalMemories[i], page, allocatedFrames[i][page] & PageTable.FRAME_MASK, buffer);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            this.rollbackBatch(pagesTables, allocatedFrames);
+            for (LogicalMemory logicalMemory : logicalMemories) {
+                this.numaStats.remove(logicalMemory.getPid());
+            }
+            throw e;
+        }
+        this.advanceHomeNode(count);
+        if (this.replacementPolicy == null) {
+            this.metrics.recordFrameAllocations((int) totalPages);
+        }
+
+        long perProcessNanos = (MemoryMetrics.ENABLED && count != 0) ? (System.nanoTime() - start) / count : 0;
+        for (int i = 0; i < count; i++) {
+            this.logicalMemoriesMap.put(logicalMemories[i].getPid(), logicalMemories[i]);
+            this.pagesTableMap.put(logicalMemories[i].getPid(), pagesTables[i]);
+            if (MemoryMetrics.ENABLED) {
+                this.metrics.recordProcessCreated(perProcessNanos, this.internalFragmentation(logicalMemories[i]));
+            }
+        }
+    }
+
+    private void rollbackBatch(PageTable[] pagesTables, int[][] allocatedFrames) {
+        for (int i = 0; i < pagesTables.length; i++) {
+            if (allocatedFrames[i] != null) {
+                for (int entry : allocatedFrames[i]) {
+                    int frame = entry & PageTable.FRAME_MASK;
+                    this.framesState[frame].release();
+                    this.freeFrames.free(frame);
+                }
+            }
+            if (pagesTables[i] != null) {
+                pagesTables[i].release();
+            }
+        }
+    }
+
+    private void checkHomeNode(int homeNode) {
+        int nodes = (this.numaFrames == null) ? 1 : this.numaFrames.getNumberOfNodes();
+        if (homeNode < 0 || homeNode >= nodes) {
+            throw new IllegalArgumentException("Node out of bounds: " + homeNode);
+        }
+    }
+
+    private int getAvailableFrames(int homeNode) {
+        return (this.numaFrames == null) ? this.freeFrames.getFreeCount() : this.numaFrames.getAvailableCount(homeNode);
+    }
+
+    private void assignHomeNode(int pid, int homeNode) {
+        if (this.numaFrames != null) {
+            this.numaStats.put(pid, new NumaStats(pid, homeNode));
+        }
+    }
+
+    // Only processes placed round-robin move it; explicit nodes and forks leave it alone
+    private void advanceHomeNode(int processes) {
+        if (this.numaFrames != null) {
+            this.nextHomeNode = (this.nextHomeNode + processes) % this.numaFrames.getNumberOfNodes();
+        }
+    }
+
+    private void checkNewProcess(int pid, int processLength) {
         if (processLength > this.maxProcessSize) {
             throw new IllegalArgumentException(
                     "Process size exceeds maximum allowed size (" + this.maxProcessSize + ")."
@@ -35,153 +280,1790 @@ public class MemoryManager {
         if (this.logicalMemoriesMap.containsKey(pid)) {
             throw new IllegalArgumentException("Process ID " + pid + " already exists.");
         }
+    }
 
-        LogicalMemory logicalMemory = new LogicalMemory(pid, processLength, this.pageSize);
-        this.logicalMemoriesMap.put(pid, logicalMemory);
+    // Frame numbers for every page, tagged HUGE for pages backed by a contiguous run.
+    // The caller has already checked that enough frames are free.
+    private int[] allocateProcessFrames(int pid, int numberOfPages) {
+        int[] allocatedFrames = new int[numberOfPages];
+        int page = 0;
+        while (page < numberOfPages) {
+            int hugePageFrames = 1 << this.hugePageOrder;
+            if (this.contiguousFrames != null && page + hugePageFrames <= numberOfPages) {
+                int firstFrame = this.contiguousFrames.allocateRun(this.hugePageOrder);
+                if (firstFrame != FrameAllocator.NO_FRAME) {
+                    for (int i = 0; i < hugePageFrames; i++) {
+                        allocatedFrames[page] = (firstFrame + i) | PageTable.HUGE;
+                        this.framesState[firstFrame + i].allocate(pid, page++);
+                    }
+                    this.hugePagesGranted++;
+                    continue;
+                }
 
-        int numberOfPages = logicalMemory.getNumberOfPages();
-        if (this.freeFrames.size() < numberOfPages) {
-            this.logicalMemoriesMap.remove(pid);
-            throw new IllegalStateException("Cannot create process: Not enough free frames available.");
+                // Fragmented: this huge page is backed by base frames instead
+                this.hugePageFallbacks++;
+                for (int i = 0; i < hugePageFrames; i++) {
+                    this.allocateBaseFrame(pid, page++, allocatedFrames);
+                }
+                continue;
+            }
+
+            this.allocateBaseFrame(pid, page++, allocatedFrames);
         }
+        return allocatedFrames;
+    }
 
-        int[] allocatedFrames = new int[numberOfPages];
-        for (int page = 0; page < numberOfPages; page++) {
-            int frameIndex = this.freeFrames.poll();
-            allocatedFrames[page] = frameIndex;
-            this.framesState[frameIndex].allocate(pid);
+    // Unused bytes at the end of the last page
+    private int internalFragmentation(LogicalMemory logicalMemory) {
+        return logicalMemory.getNumberOfPages() * this.pageSize - logicalMemory.getSize();
+    }
+
+    private void allocateBaseFrame(int pid, int page, int[] allocatedFrames) {
+        int frameIndex = this.allocateFrame(pid);
+        allocatedFrames[page] = frameIndex;
+        this.framesState[frameIndex].allocate(pid, page);
+    }
+
+    private void loadPageFromImage(LogicalMemory logicalMemory, int page, int frame, byte[] buffer) {
+        int logicalAddressStart = logicalMemory.getAddressByPage(page);
+        long frameAddressStart = physicalMemory.getAddressByFrame(frame);
+
+        // Calculates how many bytes of the process should be copied into this frame:
+        // either a full page or the remaining bytes of the last page.
+        // The rest of the frame is zeroed so a reused frame never leaks old data.
+        int bytesToCopy = Math.min(pageSize, logicalMemory.getSize() - logicalAddressStart);
+        logicalMemory.read(logicalAddressStart, buffer, 0, bytesToCopy);
+        physicalMemory.write(frameAddressStart, buffer, 0, bytesToCopy);
+        physicalMemory.clear(frameAddressStart + bytesToCopy, pageSize - bytesToCopy);
+    }
+
+    public void destroyProcess(int pid) {
+        LogicalMemory logicalMemory = this.logicalMemoriesMap.remove(pid);
+        PageTable pagesTable = this.pagesTableMap.remove(pid);
+        if (logicalMemory == null || pagesTable == null) {
+            throw new IllegalArgumentException("Process ID " + pid + " not found.");
         }
 
-        PagesTable pagesTable = new PagesTable(numberOfPages, allocatedFrames);
-        this.pagesTableMap.put(pid, pagesTable);
+        for (int page = 0; page < pagesTable.getNumberOfPages(); page++) {
+            if (pagesTable.isValid(page)) {
+                this.releaseMapping(pid, page, pagesTable.getFrameByPage(page));
+            } else if (pagesTable.isSwapped(page)) {
+                this.swapSpace.release(pagesTable.getSwapSlot(page));
+            }
+        }
+        pagesTable.release();
+
+        if (this.tlb != null) {
+            this.tlb.invalidatePid(pid);
+        }
+        this.referenceHistory.remove(pid);
+        this.numaStats.remove(pid);
+        this.lastNumaStats = null;
+        if (MemoryMetrics.ENABLED) {
+            this.metrics.recordProcessDestroyed(this.internalFragmentation(logicalMemory));
+        }
+    }
+
+    // Frees the frame once its last mapping is gone; shared frames just lose one reference
+    private void releaseMapping(int pid, int page, int frame) {
+        if (!this.framesState[frame].unshare(pid, page)) {
+            return;
+        }
+
+        if (this.replacementPolicy != null) {
+            this.replacementPolicy.onFree(frame);
+        }
+        this.freeFrames.free(frame);
+        this.metrics.recordFrameFreed();
+    }
+
+    // Copy-on-write fork: the child maps the parent's frames (and swap slots) read-only,
+    // so the cost is O(pages). A private copy is made on the first write to a shared page.
+    public void fork(int parentPid, int childPid) {
+        long start = MemoryMetrics.ENABLED ? System.nanoTime() : 0;
+        LogicalMemory parentMemory = this.logicalMemoriesMap.get(parentPid);
+        if (parentMemory == null) {
+            throw new IllegalArgumentException("Process ID " + parentPid + " not found.");
+        }
+
+        // OPTIMAL keys each frame on the (pid, page) that loaded it, so a frame cannot have two mappings
+        if (this.replacementPolicy instanceof OptimalPolicy) {
+            throw new IllegalStateException("Fork is not supported under the OPTIMAL replacement policy.");
+        }
+
+        if (this.logicalMemoriesMap.containsKey(childPid)) {
+            throw new IllegalArgumentException("Process ID " + childPid + " already exists.");
+        }
+
+        // Same seed: pages never loaded by the parent are generated identically for the child
+        LogicalMemory childMemory = new LogicalMemory(childPid, parentMemory.getSize(), this.pageSize, parentMemory.getSeed());
+        PageTable parentTable = this.pagesTableMap.get(parentPid);
+        PageTable childTable = this.pageTableFactory.create(childPid, childMemory.getNumberOfPages());
+
+        for (int page = 0; page < parentTable.getNumberOfPages(); page++) {
+            int entry = parentTable.getEntry(page);
+            if ((entry & PageTable.VALID) != 0) {
+                this.framesState[entry & PageTable.FRAME_MASK].share(childPid, page);
+            } else if ((entry & PageTable.SWAPPED) != 0) {
+                this.swapSpace.retain(entry & PageTable.FRAME_MASK);
+            }
+            childTable.setEntry(page, entry & ~PageTable.REFERENCED);
+        }
+
+        this.logicalMemoriesMap.put(childPid, childMemory);
+        this.pagesTableMap.put(childPid, childTable);
+        NumaStats parentStats = this.numaStats.get(parentPid);
+        if (parentStats != null) {
+            this.assignHomeNode(childPid, parentStats.homeNode);
+        }
+        this.forks++;
+        if (MemoryMetrics.ENABLED) {
+            this.metrics.recordProcessCreated(System.nanoTime() - start, this.internalFragmentation(childMemory));
+        }
+    }
+
+    // Incremental same-page merging over [fromFrame, toFrame): every occupied frame whose content
+    // matches a frame seen before is merged into it, the same way fork shares frames, so a later
+    // write copies the page again. Returns the number of frames freed by this pass.
+    public int deduplicate(int fromFrame, int toFrame) {
+        if (fromFrame < 0 || toFrame > this.framesState.length || fromFrame > toFrame) {
+            throw new IllegalArgumentException("Invalid frame range: " + fromFrame + "-" + toFrame);
+        }
+
+        // Merged frames would be mapped by several (pid, page), which OPTIMAL cannot follow (see fork)
+        if (this.replacementPolicy instanceof OptimalPolicy) {
+            throw new IllegalStateException("Deduplication is not supported under the OPTIMAL replacement policy.");
+        }
+
+        if (this.compareBuffer == null) {
+            this.compareBuffer = new byte[this.pageSize];
+        }
+
+        int saved = 0;
+        for (int frame = fromFrame; frame < toFrame; frame++) {
+            FrameState frameState = this.framesState[frame];
+            if (frameState.isFree || this.isHugeFrame(frameState)) {
+                continue;
+            }
+
+            this.physicalMemory.read(this.physicalMemory.getAddressByFrame(frame), this.pageBuffer, 0, this.pageSize);
+            int hash = Arrays.hashCode(this.pageBuffer);
+            Integer candidate = this.dedupIndex.putIfAbsent(hash, frame);
+            if (candidate == null || candidate == frame) {
+                continue;
+            }
+
+            // The index is only a hint: the candidate may have been freed, rewritten or collide
+            FrameState candidateState = this.framesState[candidate];
+            if (candidateState.isFree || this.isHugeFrame(candidateState) || !this.sameContent(candidate)) {
+                this.dedupIndex.put(hash, frame);
+                continue;
+            }
+
+            this.mergeFrame(frame, candidate);
+            saved++;
+        }
+
+        this.dedupFramesSaved += saved;
+        return saved;
+    }
+
+    // Background-style pass: scans the next maxFrames frames, wrapping around physical memory
+    public int deduplicateStep(int maxFrames) {
+        int numberOfFrames = this.framesState.length;
+        int from = this.dedupCursor;
+        int to = (int) Math.min((long) from + maxFrames, numberOfFrames);
 
-        for (int page = 0; page < numberOfPages; page++) {
-            int logicalAddressStart = logicalMemory.getAddressByPage(page);
-            int frame = pagesTable.getFrameByPage(page);
-            int frameAddressStart = physicalMemory.getAddressByFrame(frame);
+        this.dedupCursor = (to == numberOfFrames) ? 0 : to;
+        return this.deduplicate(from, to);
+    }
+
+    // Compares the page in pageBuffer with the content of frame
+    private boolean sameContent(int frame) {
+        this.physicalMemory.read(this.physicalMemory.getAddressByFrame(frame), this.compareBuffer, 0, this.pageSize);
+        return Arrays.equals(this.pageBuffer, this.compareBuffer);
+    }
+
+    // Huge page frames belong to a contiguous run and are never merged
+    private boolean isHugeFrame(FrameState frameState) {
+        for (int i = 0; i < frameState.referenceCount; i++) {
+            if (this.pagesTableMap.get(frameState.getSharerPid(i)).isHuge(frameState.getSharerPage(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Moves every mapping of frame onto target (same content) and frees frame
+    private void mergeFrame(int frame, int target) {
+        FrameState frameState = this.framesState[frame];
+        for (int i = 0; i < frameState.referenceCount; i++) {
+            int pid = frameState.getSharerPid(i);
+            int page = frameState.getSharerPage(i);
+            PageTable pagesTable = this.pagesTableMap.get(pid);
+
+            int flags = pagesTable.getEntry(page) & ~PageTable.FRAME_MASK;
+            pagesTable.setEntry(page, target | flags);
+            this.framesState[target].share(pid, page);
+            if (this.tlb != null) {
+                this.tlb.invalidate(pid, page);
+            }
+        }
+
+        if (this.replacementPolicy != null) {
+            this.replacementPolicy.onFree(frame);
+        }
+        frameState.release();
+        this.freeFrames.free(frame);
+        this.metrics.recordFrameFreed();
+    }
+
+    public CompactionResult compact() {
+        return this.compact(ForkJoinPool.commonPool());
+    }
+
+    // Relocates frames so that the resident pages of every process occupy consecutive frames,
+    // processes in PID order from frame 0. Huge pages stay aligned and a shared frame goes with
+    // its lowest PID. The relocation is a permutation of the frames; each of its cycles is moved
+    // by one fork-join task, then page tables, frame table and allocator are rewritten.
+    public CompactionResult compact(ForkJoinPool pool) {
+        if (this.numaFrames != null) {
+            throw new IllegalStateException("Compaction is not node-aware and would move pages off their home node.");
+        }
+
+        long start = System.nanoTime();
+        int numberOfFrames = this.framesState.length;
+        int[] target = new int[numberOfFrames];
+        Arrays.fill(target, -1);
+
+        int nextFrame = 0;
+        int unplaced = numberOfFrames - this.freeFrames.getFreeCount();
+        int hugePageFrames = 1 << this.hugePageOrder;
+        List<Integer> pids = new ArrayList<>(this.pagesTableMap.keySet());
+        Collections.sort(pids);
+        for (int pid : pids) {
+            PageTable pagesTable = this.pagesTableMap.get(pid);
+            for (int page = 0; page < pagesTable.getNumberOfPages(); page++) {
+                int entry = pagesTable.getEntry(page);
+                int frame = entry & PageTable.FRAME_MASK;
+                if ((entry & PageTable.VALID) == 0 || target[frame] != -1) {
+                    continue;
+                }
+
+                // Aligning a huge page leaves a gap, only affordable while the rest still fits
+                if ((entry & PageTable.HUGE) != 0 && (page & (hugePageFrames - 1)) == 0) {
+                    int aligned = (nextFrame + hugePageFrames - 1) & -hugePageFrames;
+                    if (aligned + unplaced <= numberOfFrames) {
+                        nextFrame = aligned;
+                    }
+                }
+                target[frame] = nextFrame++;
+                unplaced--;
+            }
+        }
+
+        // Free frames take the remaining positions in ascending order, completing the permutation
+        boolean[] occupied = new boolean[numberOfFrames];
+        boolean[] taken = new boolean[numberOfFrames];
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            occupied[frame] = target[frame] != -1;
+            if (occupied[frame]) {
+                taken[target[frame]] = true;
+            }
+        }
+        int freePosition = 0;
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            if (!occupied[frame]) {
+                while (taken[freePosition]) {
+                    freePosition++;
+                }
+                target[frame] = freePosition++;
+            }
+        }
+
+        // One start frame per cycle that moves data
+        int[] cycles = new int[numberOfFrames];
+        int numberOfCycles = 0;
+        int framesMoved = 0;
+        boolean[] visited = new boolean[numberOfFrames];
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            if (visited[frame] || target[frame] == frame) {
+                continue;
+            }
+
+            boolean movesData = false;
+            for (int current = frame; !visited[current]; current = target[current]) {
+                visited[current] = true;
+                if (occupied[current]) {
+                    movesData = true;
+                    framesMoved++;
+                }
+            }
+            if (movesData) {
+                cycles[numberOfCycles++] = frame;
+            }
+        }
+
+        pool.invoke(new CompactionTask(cycles, 0, numberOfCycles, target, occupied));
+
+        for (PageTable pagesTable : this.pagesTableMap.values()) {
+            for (int page = 0; page < pagesTable.getNumberOfPages(); page++) {
+                int entry = pagesTable.getEntry(page);
+                if ((entry & PageTable.VALID) != 0) {
+                    pagesTable.setEntry(page, target[entry & PageTable.FRAME_MASK] | (entry & ~PageTable.FRAME_MASK));
+                }
+            }
+            if (this.contiguousFrames != null) {
+                this.demoteBrokenHugePages(pagesTable);
+            }
+        }
+
+        FrameState[] previous = this.framesState.clone();
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            previous[frame].frameNumber = target[frame];
+            this.framesState[target[frame]] = previous[frame];
+        }
+
+        if (this.contiguousFrames != null) {
+            this.contiguousFrames = new ContiguousFrameAllocator(numberOfFrames);
+            this.freeFrames = this.contiguousFrames;
+        } else {
+            this.freeFrames = new FrameAllocator(numberOfFrames);
+        }
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            if (!this.framesState[frame].isFree) {
+                this.freeFrames.allocate(frame);
+            }
+        }
+
+        if (this.replacementPolicy != null) {
+            this.replacementPolicy.relocate(target);
+        }
+        if (this.tlb != null) {
+            this.tlb.flush();
+        }
+        this.dedupIndex.clear();
+
+        return new CompactionResult(framesMoved, (long) framesMoved * this.pageSize, System.nanoTime() - start);
+    }
+
+    // A huge page whose frames are no longer one aligned run becomes base pages again
+    private void demoteBrokenHugePages(PageTable pagesTable) {
+        int hugePageFrames = 1 << this.hugePageOrder;
+        for (int first = 0; first + hugePageFrames <= pagesTable.getNumberOfPages(); first += hugePageFrames) {
+            if (!pagesTable.isHuge(first)) {
+                continue;
+            }
+
+            int firstFrame = pagesTable.getFrameByPage(first);
+            boolean intact = (firstFrame & (hugePageFrames - 1)) == 0;
+            for (int i = 1; intact && i < hugePageFrames; i++) {
+                intact = pagesTable.isHuge(first + i) && pagesTable.getFrameByPage(first + i) == firstFrame + i;
+            }
+
+            if (!intact) {
+                for (int i = 0; i < hugePageFrames; i++) {
+                    pagesTable.clearFlags(first + i, PageTable.HUGE);
+                }
+            }
+        }
+    }
+
+    // Moves the cycles in [from, to): a task splits until it holds few cycles, then moves them
+    // with its own two page buffers. Cycles touch disjoint frames, so tasks never conflict.
+    private class CompactionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int CYCLES_PER_TASK = 16;
 
-            // Calculates how many bytes of the process should be copied into this frame:
-            // either a full page or the remaining bytes of the last page.
-            int bytesToCopy = Math.min(pageSize, processLength - logicalAddressStart);
-            for (int i = 0; i < bytesToCopy; i++) {
-                byte data = logicalMemory.readByte(logicalAddressStart + i);
-                physicalMemory.writeByte(frameAddressStart + i, data);
+        private final int[] cycles;
+        private final int from;
+        private final int to;
+        private final int[] target;
+        private final boolean[] occupied;
+
+        CompactionTask(int[] cycles, int from, int to, int[] target, boolean[] occupied) {
+            this.cycles = cycles;
+            this.from = from;
+            this.to = to;
+            this.target = target;
+            this.occupied = occupied;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > CYCLES_PER_TASK) {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new CompactionTask(this.cycles, this.from, middle, this.target, this.occupied),
+                        new CompactionTask(this.cycles, middle, this.to, this.target, this.occupied));
+                return;
+            }
+
+            byte[] carry = new byte[pageSize];
+            byte[] spare = new byte[pageSize];
+            for (int i = this.from; i < this.to; i++) {
+                int start = this.cycles[i];
+                boolean carrying = this.occupied[start];
+                if (carrying) {
+                    physicalMemory.read(physicalMemory.getAddressByFrame(start), carry, 0, pageSize);
+                }
+
+                // Content of current goes to target[current]; the destination is saved first if it is still needed
+                int current = start;
+                do {
+                    int destination = this.target[current];
+                    long destinationAddress = physicalMemory.getAddressByFrame(destination);
+                    boolean destinationNeeded = destination != start && this.occupied[destination];
+                    if (destinationNeeded) {
+                        physicalMemory.read(destinationAddress, spare, 0, pageSize);
+                    }
+                    if (carrying) {
+                        physicalMemory.write(destinationAddress, carry, 0, pageSize);
+                    }
+
+                    byte[] swap = carry;
+                    carry = spare;
+                    spare = swap;
+                    carrying = destinationNeeded;
+                    current = destination;
+                } while (current != start);
             }
         }
     }
 
     public byte readByLogicalAddress(int pid, int logicalAddress) {
+        return this.loadByte(pid, logicalAddress, PageTable.PROT_READ);
+    }
+
+    // Instruction fetch: a read that needs execute permission instead of read permission
+    public byte fetchByLogicalAddress(int pid, int logicalAddress) {
+        return this.loadByte(pid, logicalAddress, PageTable.PROT_EXEC);
+    }
+
+    private byte loadByte(int pid, int logicalAddress, int access) {
         LogicalMemory logicalMemory = this.logicalMemoriesMap.get(pid);
-        PagesTable pagesTable = this.pagesTableMap.get(pid);
-        if (logicalMemory == null || pagesTable == null) {
+        if (logicalMemory == null) {
             throw new IllegalArgumentException("There is no process with PID " + pid);
         }
 
         int logicalAddressPage = logicalMemory.getPageByAddress(logicalAddress);
         int logicalAddressOffset = logicalMemory.getOffsetByAddress(logicalAddress);
 
-        int physicalMemoryFrame = pagesTable.getFrameByPage(logicalAddressPage);
-        int physicalAddressBase = physicalMemory.getAddressByFrame(physicalMemoryFrame);
-        int finalPhysicalAddress = physicalAddressBase + logicalAddressOffset;
+        int physicalMemoryFrame = this.translatePage(pid, logicalAddressPage, access);
+        long physicalAddressBase = physicalMemory.getAddressByFrame(physicalMemoryFrame);
+        long finalPhysicalAddress = physicalAddressBase + logicalAddressOffset;
 
         byte data = physicalMemory.readByte(finalPhysicalAddress);
         return data;
     }
 
-    public String getProcessPageTableInfo(int pid) {
-        if (!this.pagesTableMap.containsKey(pid)) {
-            throw new IllegalArgumentException("Process ID " + pid + " not found.");
-        }
-
-        PagesTable pagesTable = this.pagesTableMap.get(pid);
+    public void writeByLogicalAddress(int pid, int logicalAddress, byte value) {
         LogicalMemory logicalMemory = this.logicalMemoriesMap.get(pid);
+        if (logicalMemory == null) {
+            throw new IllegalArgumentException("There is no process with PID " + pid);
+        }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("PID: ").append(pid).append("\n");
-        sb.append("Total Size: ").append(this.getProcessSize(pid)).append(" bytes\n");
-        sb.append("Page Table:\n");
-        sb.append("Page    |   Frame\n");
-        sb.append("------- | -------\n");
+        int page = logicalMemory.getPageByAddress(logicalAddress);
+        int offset = logicalMemory.getOffsetByAddress(logicalAddress);
+        PageTable pagesTable = this.pagesTableMap.get(pid);
 
-        int numPages = logicalMemory.getNumberOfPages();
-        for (int i = 0; i < numPages; i++) {
-            int frame = pagesTable.getFrameByPage(i);
-            sb.append(String.format("   %d    |    %d\n", i, frame));
+        int frame = this.translatePage(pid, page, PageTable.PROT_WRITE);
+        if (this.framesState[frame].referenceCount > 1) {
+            frame = this.copyOnWrite(pid, page, frame, pagesTable);
         }
 
-        return sb.toString();
+        this.physicalMemory.writeByte(this.physicalMemory.getAddressByFrame(frame) + offset, value);
+        pagesTable.setFlags(page, PageTable.DIRTY | PageTable.REFERENCED);
     }
 
-    public List<String> getMemoryReport() {
-        List<String> report = new ArrayList<>();
-        int numberOfFrames = this.physicalMemory.getNumberOfFrames();
-
-        for (int frame = 0; frame < numberOfFrames; frame++) {
-            FrameState frameState = this.framesState[frame];
+    // Bulk read: translates once per page and copies each page-contiguous run in one go.
+    public void read(int pid, int logicalAddress, byte[] dst, int dstOffset, int length) {
+        this.getCheckedProcess(pid, logicalAddress, length);
+        Objects.checkFromIndexSize(dstOffset, length, dst.length);
 
-            String frameOwner = (frameState.isFree) ? "[FREE]" : "[PROCESS " + frameState.pidOwner + "]";
-            String frameContent = this.getFrameContentString(frame);
+        while (length > 0) {
+            int offset = logicalAddress % this.pageSize;
+            int chunk = Math.min(length, this.pageSize - offset);
+            int frame = this.translatePage(pid, logicalAddress / this.pageSize, PageTable.PROT_READ);
 
-            // Uses StringBuilder to reduce string concatenation overhead.
-            StringBuilder sb = new StringBuilder();
-            sb.append("Frame ")
-                    .append(frameState.frameNumber)
-                    .append(": ")
-                    .append(frameOwner)
-                    .append(" -> ")
-                    .append(frameContent);
+            this.physicalMemory.read(this.physicalMemory.getAddressByFrame(frame) + offset, dst, dstOffset, chunk);
 
-            report.add(sb.toString());
+            logicalAddress += chunk;
+            dstOffset += chunk;
+            length -= chunk;
         }
-        return report;
     }
 
-    private String getFrameContentString(int frameIndex) {
-        int addressStart = this.physicalMemory.getAddressByFrame(frameIndex);
+    // Bulk counterpart of writeByLogicalAddress
+    public void write(int pid, int logicalAddress, byte[] src, int srcOffset, int length) {
+        this.getCheckedProcess(pid, logicalAddress, length);
+        Objects.checkFromIndexSize(srcOffset, length, src.length);
+        PageTable pagesTable = this.pagesTableMap.get(pid);
 
-        StringBuilder sb = new StringBuilder("[");
+        while (length > 0) {
+            int page = logicalAddress / this.pageSize;
+            int offset = logicalAddress % this.pageSize;
+            int chunk = Math.min(length, this.pageSize - offset);
+            int frame = this.translatePage(pid, page, PageTable.PROT_WRITE);
+            if (this.framesState[frame].referenceCount > 1) {
+                frame = this.copyOnWrite(pid, page, frame, pagesTable);
+            }
 
-        for (int i = 0; i < this.pageSize; i++) {
-            byte data = physicalMemory.readByte(addressStart + i);
-            sb.append(data);
+            this.physicalMemory.write(this.physicalMemory.getAddressByFrame(frame) + offset, src, srcOffset, chunk);
+            pagesTable.setFlags(page, PageTable.DIRTY | PageTable.REFERENCED);
 
-            if (i != this.pageSize - 1) {
-                sb.append(", ");
-            }
+            logicalAddress += chunk;
+            srcOffset += chunk;
+            length -= chunk;
         }
-        sb.append("]");
-        return sb.toString();
     }
 
-    public float getFreeMemoryPercentage() {
-        return ((float) this.freeFrames.size() / this.physicalMemory.getNumberOfFrames()) * 100;
-    }
-
-    public Integer getProcessSize(int pid) {
+    private LogicalMemory getCheckedProcess(int pid, int logicalAddress, int length) {
         LogicalMemory logicalMemory = this.logicalMemoriesMap.get(pid);
-        if (logicalMemory == null) return null;
-        return logicalMemory.getSize();
+        if (logicalMemory == null) {
+            throw new IllegalArgumentException("There is no process with PID " + pid);
+        }
+
+        if (logicalAddress < 0 || length < 0 || logicalAddress > logicalMemory.getSize() - length) {
+            throw new IllegalArgumentException("Logical address out of bounds: " + logicalAddress + " (+" + length + ")");
+        }
+        return logicalMemory;
     }
 
-    public static class FrameState {
-        int frameNumber;
-        boolean isFree;
-        int pidOwner; // -1 indicates that the frame is free (no owner)
+    // Consults the TLB first and only walks the process page table on a miss.
+    // With demand paging, a walk that finds the page unmapped raises a page fault.
+    // The TLB caches the protection bits next to the frame, so hits are checked too.
+    private int translatePage(int pid, int page, int access) {
+        this.metrics.recordTranslation();
+        if (this.agingInterval != 0 && ++this.translationsSinceSweep >= this.agingInterval) {
+            this.agingSweep();
+        }
+        int denied = access << PageTable.PROTECTION_SHIFT;
+        if (this.tlb != null) {
+            int cached = this.tlb.lookup(pid, page);
+            if (cached != Tlb.MISS) {
+                if ((cached & denied) != 0) {
+                    throw this.protectionFault(pid, page, access);
+                }
+                int frame = cached & PageTable.FRAME_MASK;
+                if (this.replacementPolicy != null) {
+                    this.replacementPolicy.onAccess(frame);
+                }
+                if (this.numaFrames != null) {
+                    this.recordNodeAccess(pid, frame);
+                }
+                return frame;
+            }
+        }
 
-        public FrameState(int frameNumber) {
-            this.frameNumber = frameNumber;
-            this.isFree = true;
-            this.pidOwner = -1;
+        PageTable pagesTable = this.pagesTableMap.get(pid);
+        int entry = pagesTable.getEntry(page);
+        if ((entry & denied) != 0) {
+            throw this.protectionFault(pid, page, access);
         }
 
-        public void allocate(int pid) {
-            this.isFree = false;
-            this.pidOwner = pid;
+        int frame;
+        if ((entry & PageTable.VALID) != 0) {
+            frame = entry & PageTable.FRAME_MASK;
+            if ((entry & PageTable.REFERENCED) == 0) {
+                pagesTable.setEntry(page, entry | PageTable.REFERENCED);
+            }
+        } else {
+            frame = this.handlePageFault(pid, page, pagesTable);
+            pagesTable.setFlags(page, PageTable.REFERENCED);
+        }
+
+        if (this.replacementPolicy != null) {
+            this.replacementPolicy.onAccess(frame);
+        }
+        if (this.tlb != null) {
+            int cached = frame | (entry & PageTable.PROTECTION_MASK);
+            if ((entry & PageTable.HUGE) != 0) {
+                this.tlb.insertHuge(pid, page, cached);
+            } else {
+                this.tlb.insert(pid, page, cached);
+            }
+        }
+        if (this.numaFrames != null) {
+            this.recordNodeAccess(pid, frame);
+        }
+        return frame;
+    }
+
+    private void recordNodeAccess(int pid, int frame) {
+        NumaStats stats = this.lastNumaStats;
+        if (stats == null || stats.pid != pid) {
+            stats = this.numaStats.get(pid);
+            this.lastNumaStats = stats;
+        }
+
+        if (this.numaFrames.getNode(frame) == stats.homeNode) {
+            stats.localAccesses++;
+        } else {
+            stats.remoteAccesses++;
+            this.remotePenaltyNanos += this.remoteAccessPenaltyNanos;
+        }
+    }
+
+    private ProtectionFaultException protectionFault(int pid, int page, int access) {
+        this.protectionFaults++;
+        return new ProtectionFaultException(pid, page, access);
+    }
+
+    // mprotect: sets the PROT_* bits of every page overlapping [logicalAddress, logicalAddress + length).
+    // A huge page only partly covered is split first, since its single TLB entry holds one protection.
+    public void setProtection(int pid, int logicalAddress, int length, int protection) {
+        this.getCheckedProcess(pid, logicalAddress, length);
+        if ((protection & ~PageTable.PROT_ALL) != 0) {
+            throw new IllegalArgumentException("Invalid protection: " + protection);
+        }
+        if (length == 0) {
+            return;
+        }
+
+        PageTable pagesTable = this.pagesTableMap.get(pid);
+        int firstPage = logicalAddress / this.pageSize;
+        int lastPage = (logicalAddress + length - 1) / this.pageSize;
+        int hugePageFrames = 1 << this.hugePageOrder;
+        for (int page = firstPage; page <= lastPage; page++) {
+            if (pagesTable.isHuge(page) && pagesTable.getProtection(page) != protection) {
+                int first = page & -hugePageFrames;
+                if (first < firstPage || first + hugePageFrames - 1 > lastPage) {
+                    this.splitHugePage(pid, page, pagesTable);
+                }
+            }
+
+            pagesTable.setProtection(page, protection);
+            if (this.tlb != null) {
+                this.tlb.invalidate(pid, page);
+            }
+        }
+    }
+
+    public int getProtection(int pid, int page) {
+        PageTable pagesTable = this.pagesTableMap.get(pid);
+        if (pagesTable == null) {
+            throw new IllegalArgumentException("Process ID " + pid + " not found.");
+        }
+        return pagesTable.getProtection(page);
+    }
+
+    // Gives pid its own copy of a shared page before it is modified
+    private int copyOnWrite(int pid, int page, int sharedFrame, PageTable pagesTable) {
+        if (pagesTable.isHuge(page)) {
+            this.splitHugePage(pid, page, pagesTable);
+        }
+
+        // sharedFrame is pinned: evicting it would leave nothing to copy from
+        int frame = this.obtainFrame(pid, sharedFrame);
+        this.physicalMemory.read(this.physicalMemory.getAddressByFrame(sharedFrame), this.pageBuffer, 0, this.pageSize);
+        this.physicalMemory.write(this.physicalMemory.getAddressByFrame(frame), this.pageBuffer, 0, this.pageSize);
+
+        this.framesState[sharedFrame].unshare(pid, page);
+        this.framesState[frame].allocate(pid, page);
+        pagesTable.setFrame(page, frame);
+        if (this.replacementPolicy != null) {
+            this.replacementPolicy.onLoad(frame, pid, page);
+        }
+        if (this.tlb != null) {
+            this.tlb.invalidate(pid, page);
+        }
+
+        this.copyOnWriteFaults++;
+        return frame;
+    }
+
+    // Turns the huge page containing page back into base pages of the same frames,
+    // so that one of them can be remapped on its own
+    private void splitHugePage(int pid, int page, PageTable pagesTable) {
+        int hugePageFrames = 1 << this.hugePageOrder;
+        int first = page & -hugePageFrames;
+        for (int i = first; i < first + hugePageFrames; i++) {
+            pagesTable.clearFlags(i, PageTable.HUGE);
+        }
+
+        if (this.tlb != null) {
+            this.tlb.invalidate(pid, page);
+        }
+    }
+
+    // A free frame, or with demand paging one reclaimed from the replacement policy
+    private int obtainFrame(int pid) {
+        return this.obtainFrame(pid, FrameAllocator.NO_FRAME);
+    }
+
+    // Same, but pinnedFrame is never chosen as the eviction victim
+    private int obtainFrame(int pid, int pinnedFrame) {
+        int frame = this.allocateFrame(pid);
+        if (frame == FrameAllocator.NO_FRAME) {
+            if (this.replacementPolicy == null) {
+                this.metrics.recordFailedAllocation();
+                throw new IllegalStateException("Not enough free frames available.");
+            }
+            frame = this.evictPage(pid, pinnedFrame); // records its own failure
+        }
+
+        this.metrics.recordFrameAllocations(1);
+        return frame;
+    }
+
+    // A free frame, from the home node of pid when memory has NUMA nodes
+    private int allocateFrame(int pid) {
+        if (this.numaFrames == null) {
+            return this.freeFrames.allocate();
+        }
+        return this.numaFrames.allocateOnNode(this.numaStats.get(pid).homeNode);
+    }
+
+    private int handlePageFault(int pid, int page, PageTable pagesTable) {
+        if (this.replacementPolicy == null) {
+            throw new IllegalStateException("Page " + page + " of process " + pid + " is not mapped to a frame.");
+        }
+
+        long start = System.nanoTime();
+        int frame = this.obtainFrame(pid);
+
+        if (pagesTable.isSwapped(page)) {
+            this.swapSpace.swapIn(pagesTable.getSwapSlot(page), this.physicalMemory, this.physicalMemory.getAddressByFrame(frame));
+            // The swapped copy differs from the process image, so it must be written back if evicted again
+            pagesTable.setFrame(page, frame);
+            pagesTable.setFlags(page, PageTable.DIRTY);
+            this.swapIns++;
+        } else {
+            this.loadPageFromImage(this.logicalMemoriesMap.get(pid), page, frame, this.pageBuffer);
+            pagesTable.setFrame(page, frame);
+        }
+
+        this.framesState[frame].allocate(pid, page);
+        this.replacementPolicy.onLoad(frame, pid, page);
+
+        long elapsed = System.nanoTime() - start;
+        this.pageFaults++;
+        this.pageFaultNanos += elapsed;
+        this.metrics.recordPageFault(elapsed);
+        return frame;
+    }
+
+    // Frees a frame chosen by the replacement policy. Dirty pages go to swap,
+    // clean ones are simply dropped and reloaded from the process image later.
+    // Private frames are preferred; a shared frame is swapped out once and every sharer keeps the slot.
+    // Under the STRICT spill policy the victim must come from the home node of faultingPid
+    private int evictPage(int faultingPid, int pinnedFrame) {
+        IntPredicate any = frame -> frame != pinnedFrame;
+        if (this.numaFrames != null && this.numaFrames.getSpillPolicy() == NumaFrameAllocator.SpillPolicy.STRICT) {
+            int homeNode = this.numaStats.get(faultingPid).homeNode;
+            any = any.and(frame -> this.numaFrames.getNode(frame) == homeNode);
+        }
+        IntPredicate evictable = any.and(this.evictable);
+
+        int victim = this.replacementPolicy.selectVictim(evictable);
+        if (victim == ReplacementPolicy.NO_VICTIM) {
+            victim = this.replacementPolicy.selectVictim(any);
+        }
+        if (victim == ReplacementPolicy.NO_VICTIM) {
+            this.metrics.recordFailedAllocation();
+            throw new IllegalStateException("Cannot handle page fault: no frame can be evicted.");
+        }
+
+        FrameState frameState = this.framesState[victim];
+        int mappings = frameState.referenceCount;
+        boolean dirty = false;
+        for (int i = 0; i < mappings; i++) {
+            dirty |= this.pagesTableMap.get(frameState.getSharerPid(i)).isDirty(frameState.getSharerPage(i));
+        }
+
+        int slot = -1;
+        if (dirty) {
+            slot = this.swapSpace.swapOut(this.physicalMemory, this.physicalMemory.getAddressByFrame(victim));
+            this.swapOuts++;
+        }
+
+        for (int i = 0; i < mappings; i++) {
+            int pid = frameState.getSharerPid(i);
+            int page = frameState.getSharerPage(i);
+            if (dirty) {
+                if (i > 0) {
+                    this.swapSpace.retain(slot);
+                }
+                this.pagesTableMap.get(pid).setSwapSlot(page, slot);
+            } else {
+                this.pagesTableMap.get(pid).invalidate(page);
+            }
+
+            if (this.tlb != null) {
+                this.tlb.invalidate(pid, page);
+            }
+        }
+
+        this.replacementPolicy.onFree(victim);
+        frameState.release();
+        this.pageEvictions++;
+        this.metrics.recordFrameFreed();
+        return victim;
+    }
+
+    public String getProcessPageTableInfo(int pid) {
+        if (!this.pagesTableMap.containsKey(pid)) {
+            throw new IllegalArgumentException("Process ID " + pid + " not found.");
+        }
+
+        PageTable pagesTable = this.pagesTableMap.get(pid);
+        LogicalMemory logicalMemory = this.logicalMemoriesMap.get(pid);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("PID: ").append(pid).append("\n");
+        sb.append("Total Size: ").append(this.getProcessSize(pid)).append(" bytes\n");
+        sb.append("Page Table:\n");
+        sb.append("Page    |   Frame\n");
+        sb.append("------- | -------\n");
+
+        int numPages = logicalMemory.getNumberOfPages();
+        for (int i = 0; i < numPages; i++) {
+            String frame;
+            if (pagesTable.isValid(i)) {
+                frame = String.valueOf(pagesTable.getFrameByPage(i));
+                if (pagesTable.isHuge(i)) {
+                    frame += " (huge)";
+                }
+            } else {
+                frame = pagesTable.isSwapped(i) ? "swap" : "-";
+            }
+            sb.append(String.format("   %d    |    %s\n", i, frame));
+        }
+
+        return sb.toString();
+    }
+
+    public List<String> getMemoryReport() {
+        long start = MemoryMetrics.ENABLED ? System.nanoTime() : 0;
+        int numberOfFrames = this.physicalMemory.getNumberOfFrames();
+        List<String> report = new ArrayList<>(numberOfFrames);
+
+        // One StringBuilder reused for every line to reduce allocation overhead.
+        StringBuilder sb = new StringBuilder();
+        for (int frame = 0; frame < numberOfFrames; frame++) {
+            sb.setLength(0);
+            try {
+                this.appendFrameLine(sb, frame);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // StringBuilder never throws
+            }
+            report.add(sb.toString());
+        }
+        if (MemoryMetrics.ENABLED) {
+            this.metrics.recordReport(System.nanoTime() - start);
+        }
+        return report;
+    }
+
+    // Streams the frame map straight to out, one line per frame, without building it in memory.
+    public void writeMemoryReport(Appendable out) throws IOException {
+        this.writeMemoryReport(out, 0, this.physicalMemory.getNumberOfFrames());
+    }
+
+    // Frames in [fromFrame, toFrame)
+    public void writeMemoryReport(Appendable out, int fromFrame, int toFrame) throws IOException {
+        if (fromFrame < 0 || fromFrame > toFrame || toFrame > this.physicalMemory.getNumberOfFrames()) {
+            throw new IllegalArgumentException("Invalid frame range: " + fromFrame + " to " + toFrame);
+        }
+
+        long start = MemoryMetrics.ENABLED ? System.nanoTime() : 0;
+        for (int frame = fromFrame; frame < toFrame; frame++) {
+            this.appendFrameLine(out, frame);
+            out.append('\n');
+        }
+        if (MemoryMetrics.ENABLED) {
+            this.metrics.recordReport(System.nanoTime() - start);
+        }
+    }
+
+    // Compact view: consecutive frames with the same owner collapsed into one line,
+    // followed by per-process totals. Output size depends on fragmentation, not on RAM size.
+    public void writeMemoryReportSummary(Appendable out) throws IOException {
+        long start = MemoryMetrics.ENABLED ? System.nanoTime() : 0;
+        int numberOfFrames = this.physicalMemory.getNumberOfFrames();
+
+        int runStart = 0;
+        for (int frame = 1; frame <= numberOfFrames; frame++) {
+            if (frame < numberOfFrames && this.framesState[frame].pidOwner == this.framesState[runStart].pidOwner) {
+                continue;
+            }
+
+            out.append("Frames ").append(String.valueOf(runStart)).append('-').append(String.valueOf(frame - 1)).append(": ");
+            this.appendFrameOwner(out, this.framesState[runStart]);
+            out.append(" (").append(String.valueOf(frame - runStart)).append(" frames)\n");
+            runStart = frame;
+        }
+
+        List<Integer> pids = new ArrayList<>(this.logicalMemoriesMap.keySet());
+        Collections.sort(pids);
+        for (int pid : pids) {
+            PageTable pagesTable = this.pagesTableMap.get(pid);
+            int residentPages = 0;
+            for (int page = 0; page < pagesTable.getNumberOfPages(); page++) {
+                if (pagesTable.isValid(page)) {
+                    residentPages++;
+                }
+            }
+
+            out.append("PID ").append(String.valueOf(pid))
+                    .append(": ").append(String.valueOf(this.logicalMemoriesMap.get(pid).getSize())).append(" bytes, ")
+                    .append(String.valueOf(residentPages)).append('/').append(String.valueOf(pagesTable.getNumberOfPages()))
+                    .append(" pages resident");
+            if (this.agingSweeps > 0) {
+                out.append(", ").append(String.valueOf(this.getWorkingSet(pid).getPages())).append(" in working set");
+            }
+            if (this.numaFrames != null) {
+                NumaStats stats = this.numaStats.get(pid);
+                out.append(", node ").append(String.valueOf(stats.homeNode))
+                        .append(", ").append(String.format("%.1f", stats.getLocalRatio() * 100)).append("% local");
+            }
+            out.append('\n');
+        }
+
+        out.append("Free frames: ").append(String.valueOf(this.freeFrames.getFreeCount()))
+                .append(" of ").append(String.valueOf(numberOfFrames)).append('\n');
+        if (this.contiguousFrames != null) {
+            out.append("Huge pages: ").append(String.valueOf(this.hugePagesGranted)).append(" granted, ")
+                    .append(String.valueOf(this.hugePageFallbacks)).append(" fell back to base pages (largest free run: ")
+                    .append(String.valueOf(this.contiguousFrames.getLargestFreeRun())).append(" frames)\n");
+        }
+        if (this.numaFrames != null) {
+            out.append("NUMA nodes (").append(this.numaFrames.getSpillPolicy().name()).append(" spill):");
+            for (int node = 0; node < this.numaFrames.getNumberOfNodes(); node++) {
+                out.append(" node ").append(String.valueOf(node)).append(' ')
+                        .append(String.valueOf(this.numaFrames.getFreeCount(node))).append('/')
+                        .append(String.valueOf(this.numaFrames.getNumberOfFrames(node))).append(" free");
+                out.append(node == this.numaFrames.getNumberOfNodes() - 1 ? "\n" : ",");
+            }
+            out.append("Remote access penalty: ").append(String.valueOf(this.remotePenaltyNanos)).append(" ns\n");
+        }
+        if (MemoryMetrics.ENABLED) {
+            this.metrics.recordReport(System.nanoTime() - start);
+        }
+    }
+
+    private void appendFrameLine(Appendable out, int frame) throws IOException {
+        FrameState frameState = this.framesState[frame];
+        out.append("Frame ").append(String.valueOf(frameState.frameNumber)).append(": ");
+        this.appendFrameOwner(out, frameState);
+        out.append(" -> ");
+        this.appendFrameContent(out, frame);
+    }
+
+    private void appendFrameOwner(Appendable out, FrameState frameState) throws IOException {
+        if (frameState.isFree) {
+            out.append("[FREE]");
+        } else if (frameState.referenceCount > 1) {
+            out.append("[PROCESS ").append(String.valueOf(frameState.pidOwner))
+                    .append(", SHARED x").append(String.valueOf(frameState.referenceCount)).append(']');
+        } else {
+            out.append("[PROCESS ").append(String.valueOf(frameState.pidOwner)).append(']');
+        }
+    }
+
+    private void appendFrameContent(Appendable out, int frameIndex) throws IOException {
+        // One bulk read per frame instead of a bounds-checked read per byte
+        this.physicalMemory.read(this.physicalMemory.getAddressByFrame(frameIndex), this.pageBuffer, 0, this.pageSize);
+
+        out.append('[');
+        for (int i = 0; i < this.pageSize; i++) {
+            out.append(BYTE_STRINGS[this.pageBuffer[i] + 128]);
+
+            if (i != this.pageSize - 1) {
+                out.append(", ");
+            }
+        }
+        out.append(']');
+    }
+
+    public float getFreeMemoryPercentage() {
+        return ((float) this.freeFrames.getFreeCount() / this.physicalMemory.getNumberOfFrames()) * 100;
+    }
+
+    public int getNumberOfFrames() {
+        return this.physicalMemory.getNumberOfFrames();
+    }
+
+    public Integer getProcessSize(int pid) {
+        LogicalMemory logicalMemory = this.logicalMemoriesMap.get(pid);
+        if (logicalMemory == null) return null;
+        return logicalMemory.getSize();
+    }
+
+    public long getPhysicalMemorySize() {
+        return this.physicalMemorySize;
+    }
+
+    @Override
+    public void close() {
+        this.physicalMemory.close();
+    }
+
+    // Process contents are generated from this seed and the PID, so the same seed
+    // reproduces the same memory images run after run
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setTlb(Tlb tlb) {
+        this.tlb = tlb;
+        if (tlb != null && this.contiguousFrames != null) {
+            tlb.setHugePageShift(this.hugePageOrder);
+        }
+    }
+
+    public Tlb getTlb() {
+        return this.tlb;
+    }
+
+    public long getTlbHits() {
+        return (this.tlb == null) ? 0 : this.tlb.getHits();
+    }
+
+    public long getTlbMisses() {
+        return (this.tlb == null) ? 0 : this.tlb.getMisses();
+    }
+
+    public long getTlbEvictions() {
+        return (this.tlb == null) ? 0 : this.tlb.getEvictions();
+    }
+
+    public void enableDemandPaging(ReplacementPolicy replacementPolicy) {
+        if (!this.logicalMemoriesMap.isEmpty()) {
+            throw new IllegalStateException("Demand paging must be enabled before any process is created.");
+        }
+
+        if (this.contiguousFrames != null) {
+            throw new IllegalStateException("Demand paging is not supported together with huge pages.");
+        }
+
+        replacementPolicy.init(this.physicalMemory.getNumberOfFrames());
+        this.replacementPolicy = replacementPolicy;
+        this.swapSpace = new SwapSpace(this.pageSize);
+    }
+
+    // Page table implementation for every process (flat PagesTable by default)
+    public void setPageTableFactory(PageTable.Factory pageTableFactory) {
+        if (!this.logicalMemoriesMap.isEmpty()) {
+            throw new IllegalStateException("The page table implementation must be chosen before any process is created.");
+        }
+
+        this.pageTableFactory = pageTableFactory;
+    }
+
+    public PageTable getPageTable(int pid) {
+        PageTable pageTable = this.pagesTableMap.get(pid);
+        if (pageTable == null) {
+            throw new IllegalArgumentException("Process ID " + pid + " not found.");
+        }
+        return pageTable;
+    }
+
+    public boolean isDemandPaging() {
+        return this.replacementPolicy != null;
+    }
+
+    public ReplacementPolicy getReplacementPolicy() {
+        return this.replacementPolicy;
+    }
+
+    public long getPageFaults() {
+        return this.pageFaults;
+    }
+
+    public long getPageFaultNanos() {
+        return this.pageFaultNanos;
+    }
+
+    public double getAveragePageFaultNanos() {
+        return (this.pageFaults == 0) ? 0 : (double) this.pageFaultNanos / this.pageFaults;
+    }
+
+    public long getPageEvictions() {
+        return this.pageEvictions;
+    }
+
+    public long getSwapOuts() {
+        return this.swapOuts;
+    }
+
+    public long getSwapIns() {
+        return this.swapIns;
+    }
+
+    public int getSwapSlotsInUse() {
+        return (this.swapSpace == null) ? 0 : this.swapSpace.getSlotsInUse();
+    }
+
+    public long getForks() {
+        return this.forks;
+    }
+
+    public long getCopyOnWriteFaults() {
+        return this.copyOnWriteFaults;
+    }
+
+    public long getProtectionFaults() {
+        return this.protectionFaults;
+    }
+
+    // Frames currently mapped by more than one page (fork sharing)
+    public int getSharedFrames() {
+        int shared = 0;
+        for (FrameState frameState : this.framesState) {
+            if (frameState.referenceCount > 1) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+
+    // Writes the whole memory state (see MemorySnapshot for the layout); free frames are skipped
+    public void saveSnapshot(Path file) throws IOException {
+        // fromSnapshot rebuilds the policy by name, which OPTIMAL cannot be without its future trace
+        if (this.replacementPolicy instanceof OptimalPolicy) {
+            throw new IllegalStateException("Cannot save a snapshot under the OPTIMAL replacement policy.");
+        }
+
+        try (MemorySnapshot.Writer writer = new MemorySnapshot.Writer(file)) {
+            new MemorySnapshot.Header(
+                    this.pageSize,
+                    this.framesState.length,
+                    this.maxProcessSize,
+                    this.seed,
+                    this.contiguousFrames == null ? 0 : this.hugePageOrder,
+                    this.replacementPolicy == null ? null : this.replacementPolicy.getName()
+            ).write(writer);
+
+            writer.putInt(this.logicalMemoriesMap.size());
+            for (Map.Entry<Integer, LogicalMemory> entry : this.logicalMemoriesMap.entrySet()) {
+                LogicalMemory logicalMemory = entry.getValue();
+                PageTable pagesTable = this.pagesTableMap.get(entry.getKey());
+                writer.putInt(entry.getKey());
+                writer.putInt(logicalMemory.getSize());
+                writer.putLong(logicalMemory.getSeed());
+                writer.putInt(pagesTable.getNumberOfPages());
+                for (int page = 0; page < pagesTable.getNumberOfPages(); page++) {
+                    writer.putInt(pagesTable.getEntry(page));
+                }
+            }
+
+            writer.putInt(this.framesState.length - this.freeFrames.getFreeCount());
+            for (FrameState frameState : this.framesState) {
+                if (frameState.isFree) {
+                    continue;
+                }
+
+                writer.putInt(frameState.frameNumber);
+                writer.putInt(frameState.referenceCount);
+                for (int i = 0; i < frameState.referenceCount; i++) {
+                    writer.putLong(FrameState.sharerKey(frameState.getSharerPid(i), frameState.getSharerPage(i)));
+                }
+                this.physicalMemory.read(this.physicalMemory.getAddressByFrame(frameState.frameNumber), this.pageBuffer, 0, this.pageSize);
+                writer.putBytes(this.pageBuffer, 0, this.pageSize);
+            }
+
+            int slots = (this.swapSpace == null) ? 0 : this.swapSpace.getSlotCapacity();
+            writer.putInt(this.swapSpace == null ? 0 : this.swapSpace.getSlotsInUse());
+            for (int slot = 0; slot < slots; slot++) {
+                int references = this.swapSpace.getReferences(slot);
+                if (references > 0) {
+                    writer.putInt(slot);
+                    writer.putInt(references);
+                    this.swapSpace.readSlot(slot, this.pageBuffer);
+                    writer.putBytes(this.pageBuffer, 0, this.pageSize);
+                }
+            }
+        }
+    }
+
+    // Loads a snapshot into this manager, which must be empty and configured like the one that saved it
+    // (frame size and count, eager or demand paging, huge pages). The replacement policy sees the resident
+    // frames loaded in frame order, and the TLB starts cold. If reading fails midway the manager must be discarded.
+    public void restoreSnapshot(Path file) throws IOException {
+        if (!this.logicalMemoriesMap.isEmpty()) {
+            throw new IllegalStateException("A snapshot can only be restored into a memory manager without processes.");
+        }
+
+        try (MemorySnapshot.Reader reader = new MemorySnapshot.Reader(file)) {
+            MemorySnapshot.Header header = MemorySnapshot.Header.read(reader);
+            if (header.getPageSize() != this.pageSize || header.getNumberOfFrames() != this.framesState.length) {
+                throw new IllegalArgumentException(
+                        "Snapshot geometry (" + header.getNumberOfFrames() + " frames of " + header.getPageSize()
+                                + " bytes) does not match this memory (" + this.framesState.length + " frames of " + this.pageSize + " bytes)."
+                );
+            }
+
+            if ((header.getPolicyName() == null) != (this.replacementPolicy == null)) {
+                throw new IllegalArgumentException("Snapshot paging mode does not match (demand paging must be "
+                        + (header.getPolicyName() == null ? "disabled" : "enabled") + ").");
+            }
+
+            if (header.getHugePageOrder() != (this.contiguousFrames == null ? 0 : this.hugePageOrder)) {
+                throw new IllegalArgumentException("Snapshot huge page configuration does not match.");
+            }
+            this.seed = header.getSeed();
+
+            int processes = reader.getInt();
+            for (int i = 0; i < processes; i++) {
+                int pid = reader.getInt();
+                int size = reader.getInt();
+                long seed = reader.getLong();
+                int numberOfPages = reader.getInt();
+
+                LogicalMemory logicalMemory = new LogicalMemory(pid, size, this.pageSize, seed);
+                PageTable pagesTable = this.pageTableFactory.create(pid, numberOfPages);
+                for (int page = 0; page < numberOfPages; page++) {
+                    pagesTable.setEntry(page, reader.getInt());
+                }
+                this.logicalMemoriesMap.put(pid, logicalMemory);
+                this.pagesTableMap.put(pid, pagesTable);
+                if (this.numaFrames != null) {
+                    this.assignHomeNode(pid, this.nextHomeNode);
+                    this.advanceHomeNode(1);
+                }
+                if (MemoryMetrics.ENABLED) {
+                    this.metrics.recordProcessRestored(this.internalFragmentation(logicalMemory));
+                }
+            }
+
+            int occupiedFrames = reader.getInt();
+            for (int i = 0; i < occupiedFrames; i++) {
+                int frame = reader.getInt();
+                int references = reader.getInt();
+                this.freeFrames.allocate(frame);
+
+                FrameState frameState = this.framesState[frame];
+                for (int reference = 0; reference < references; reference++) {
+                    long key = reader.getLong();
+                    if (reference == 0) {
+                        frameState.allocate((int) (key >>> 32), (int) key);
+                    } else {
+                        frameState.share((int) (key >>> 32), (int) key);
+                    }
+                }
+
+                reader.getBytes(this.pageBuffer, 0, this.pageSize);
+                this.physicalMemory.write(this.physicalMemory.getAddressByFrame(frame), this.pageBuffer, 0, this.pageSize);
+                if (this.replacementPolicy != null) {
+                    this.replacementPolicy.onLoad(frame, frameState.pidOwner, frameState.page);
+                }
+            }
+
+            // Swap slots get new numbers, so swapped entries are rewritten afterwards
+            int swapSlots = reader.getInt();
+            Map<Integer, Integer> slotMapping = new HashMap<>();
+            for (int i = 0; i < swapSlots; i++) {
+                int slot = reader.getInt();
+                int references = reader.getInt();
+                reader.getBytes(this.pageBuffer, 0, this.pageSize);
+                slotMapping.put(slot, this.swapSpace.restoreSlot(this.pageBuffer, references));
+            }
+
+            if (!slotMapping.isEmpty()) {
+                for (PageTable pagesTable : this.pagesTableMap.values()) {
+                    for (int page = 0; page < pagesTable.getNumberOfPages(); page++) {
+                        if (pagesTable.isSwapped(page)) {
+                            int flags = pagesTable.getEntry(page) & ~PageTable.FRAME_MASK;
+                            pagesTable.setEntry(page, slotMapping.get(pagesTable.getSwapSlot(page)) | flags);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (this.tlb != null) {
+            this.tlb.flush();
+        }
+        this.dedupIndex.clear();
+    }
+
+    // Builds a heap-backed manager matching the snapshot and restores it
+    public static MemoryManager fromSnapshot(Path file) throws IOException {
+        MemorySnapshot.Header header;
+        try (MemorySnapshot.Reader reader = new MemorySnapshot.Reader(file)) {
+            header = MemorySnapshot.Header.read(reader);
+        }
+
+        int physicalMemorySize = Math.multiplyExact(header.getNumberOfFrames(), header.getPageSize());
+        MemoryManager memoryManager = new MemoryManager(physicalMemorySize, header.getPageSize(), header.getMaxProcessSize());
+        if (header.getPolicyName() != null) {
+            memoryManager.enableDemandPaging(ReplacementPolicy.byName(header.getPolicyName()));
+        }
+        if (header.getHugePageOrder() != 0) {
+            memoryManager.enableHugePages(1 << header.getHugePageOrder());
+        }
+
+        memoryManager.restoreSnapshot(file);
+        return memoryManager;
+    }
+
+    public MemoryMetrics.Snapshot getMetricsSnapshot() {
+        Map<Integer, Integer> fragmentationByProcess = new TreeMap<>();
+        for (Map.Entry<Integer, LogicalMemory> entry : this.logicalMemoriesMap.entrySet()) {
+            fragmentationByProcess.put(entry.getKey(), this.internalFragmentation(entry.getValue()));
+        }
+        return this.metrics.snapshot(this.freeFrames.getFreeCount(), this.framesState.length, fragmentationByProcess);
+    }
+
+    public void resetMetrics() {
+        this.metrics.reset();
+    }
+
+    // Publishes the metrics on the platform MBean server, e.g. under "pagination:type=MemoryManager"
+    public ObjectName registerMetricsMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new StandardMBean(this.metrics.asMXBean(() -> this.freeFrames.getFreeCount()), MemoryMetricsMXBean.class, true),
+                    objectName
+            );
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics MBean " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    public long getDedupFramesSaved() {
+        return this.dedupFramesSaved;
+    }
+
+    public int getFrameReferenceCount(int frame) {
+        return this.framesState[frame].referenceCount;
+    }
+
+    // Backs every aligned group of basePagesPerHugePage pages with one contiguous, aligned
+    // frame run, falling back to base frames when fragmentation leaves no such run.
+    public void enableHugePages(int basePagesPerHugePage) {
+        if (basePagesPerHugePage < 2 || Integer.bitCount(basePagesPerHugePage) != 1) {
+            throw new IllegalArgumentException("Huge page size must be a power of 2 of at least 2 base pages.");
+        }
+
+        if (basePagesPerHugePage > this.physicalMemory.getNumberOfFrames()) {
+            throw new IllegalArgumentException("Huge page size exceeds physical memory.");
+        }
+
+        if (!this.logicalMemoriesMap.isEmpty()) {
+            throw new IllegalStateException("Huge pages must be enabled before creating processes.");
+        }
+
+        if (this.replacementPolicy != null) {
+            throw new IllegalStateException("Huge pages require eager allocation (demand paging is enabled).");
+        }
+
+        if (this.numaFrames != null) {
+            throw new IllegalStateException("Huge pages cannot be combined with NUMA nodes.");
+        }
+
+        this.contiguousFrames = new ContiguousFrameAllocator(this.physicalMemory.getNumberOfFrames());
+        this.freeFrames = this.contiguousFrames;
+        this.hugePageOrder = Integer.numberOfTrailingZeros(basePagesPerHugePage);
+        if (this.tlb != null) {
+            this.tlb.setHugePageShift(this.hugePageOrder);
+        }
+    }
+
+    public boolean isHugePages() {
+        return this.contiguousFrames != null;
+    }
+
+    public long getHugePagesGranted() {
+        return this.hugePagesGranted;
+    }
+
+    public long getHugePageFallbacks() {
+        return this.hugePageFallbacks;
+    }
+
+    // Shifts the REFERENCED bit of every page into its history and clears it. The TLB entry of a
+    // referenced page is dropped too, so its next access walks the page table and sets the bit again.
+    // The pages of a huge page share one TLB entry, so they are aged as a unit.
+    public void agingSweep() {
+        int hugePageFrames = this.contiguousFrames == null ? 1 : 1 << this.hugePageOrder;
+        for (Map.Entry<Integer, PageTable> process : this.pagesTableMap.entrySet()) {
+            int pid = process.getKey();
+            PageTable pagesTable = process.getValue();
+            int numberOfPages = pagesTable.getNumberOfPages();
+            int[] history = this.referenceHistory.computeIfAbsent(pid, key -> new int[numberOfPages]);
+
+            int page = 0;
+            while (page < numberOfPages) {
+                int end = pagesTable.isHuge(page) ? Math.min(page + hugePageFrames, numberOfPages) : page + 1;
+                int referenced = 0;
+                for (int i = page; i < end; i++) {
+                    int entry = pagesTable.getEntry(i);
+                    if ((entry & PageTable.REFERENCED) != 0) {
+                        referenced = 1;
+                        pagesTable.setEntry(i, entry & ~PageTable.REFERENCED);
+                    }
+                }
+
+                if (referenced != 0 && this.tlb != null) {
+                    this.tlb.invalidate(pid, page);
+                }
+                for (int i = page; i < end; i++) {
+                    history[i] = (history[i] << 1) | referenced;
+                }
+                page = end;
+            }
+        }
+
+        this.translationsSinceSweep = 0;
+        this.agingSweeps++;
+    }
+
+    // Pages of pid referenced in the last workingSetWindow sweeps; empty before the first sweep
+    public WorkingSet getWorkingSet(int pid) {
+        PageTable pagesTable = this.pagesTableMap.get(pid);
+        if (pagesTable == null) {
+            throw new IllegalArgumentException("Process ID " + pid + " not found.");
+        }
+
+        int[] history = this.referenceHistory.get(pid);
+        int window = this.workingSetWindow == Integer.SIZE ? -1 : (1 << this.workingSetWindow) - 1;
+        int pages = 0;
+        int dirtyPages = 0;
+        for (int page = 0; history != null && page < history.length; page++) {
+            if ((history[page] & window) != 0) {
+                pages++;
+                if (pagesTable.isDirty(page)) {
+                    dirtyPages++;
+                }
+            }
+        }
+        return new WorkingSet(pid, pages, dirtyPages, pagesTable.getNumberOfPages(), this.pageSize);
+    }
+
+    public Map<Integer, WorkingSet> getWorkingSets() {
+        Map<Integer, WorkingSet> workingSets = new TreeMap<>();
+        for (int pid : this.pagesTableMap.keySet()) {
+            workingSets.put(pid, this.getWorkingSet(pid));
+        }
+        return workingSets;
+    }
+
+    public void setWorkingSetWindow(int sweeps) {
+        if (sweeps < 1 || sweeps > Integer.SIZE) {
+            throw new IllegalArgumentException("Working set window must be between 1 and " + Integer.SIZE + " sweeps.");
+        }
+        this.workingSetWindow = sweeps;
+    }
+
+    public int getWorkingSetWindow() {
+        return this.workingSetWindow;
+    }
+
+    // Runs agingSweep automatically every given number of translations (0 = only when called)
+    public void setAgingInterval(long translations) {
+        if (translations < 0) {
+            throw new IllegalArgumentException("Aging interval cannot be negative.");
+        }
+        this.agingInterval = translations;
+        this.translationsSinceSweep = 0;
+    }
+
+    public long getAgingInterval() {
+        return this.agingInterval;
+    }
+
+    public long getAgingSweeps() {
+        return this.agingSweeps;
+    }
+
+    // Splits the frames into numberOfNodes consecutive banks. Processes get a home node (round-robin,
+    // or chosen with createProcess(pid, size, node)), allocate there first and spill to other nodes
+    // as spillPolicy allows. Every translation to a frame on another node counts as remote and is
+    // charged the remote access penalty. Eviction under demand paging stays global.
+    public void enableNuma(int numberOfNodes, NumaFrameAllocator.SpillPolicy spillPolicy) {
+        if (!this.logicalMemoriesMap.isEmpty()) {
+            throw new IllegalStateException("NUMA nodes must be configured before creating processes.");
+        }
+
+        if (this.contiguousFrames != null) {
+            throw new IllegalStateException("NUMA nodes cannot be combined with huge pages.");
+        }
+
+        this.numaFrames = new NumaFrameAllocator(this.physicalMemory.getNumberOfFrames(), numberOfNodes);
+        this.numaFrames.setSpillPolicy(spillPolicy);
+        this.freeFrames = this.numaFrames;
+        this.nextHomeNode = 0;
+    }
+
+    public boolean isNuma() {
+        return this.numaFrames != null;
+    }
+
+    public int getNumberOfNodes() {
+        return (this.numaFrames == null) ? 1 : this.numaFrames.getNumberOfNodes();
+    }
+
+    public int getNodeOfFrame(int frame) {
+        this.physicalMemory.getAddressByFrame(frame); // bounds check
+        return (this.numaFrames == null) ? 0 : this.numaFrames.getNode(frame);
+    }
+
+    // Later allocations of pid come from the new node; resident pages stay where they are
+    public void setHomeNode(int pid, int homeNode) {
+        NumaStats stats = this.getNumaStats(pid);
+        this.checkHomeNode(homeNode);
+        stats.homeNode = homeNode;
+    }
+
+    public NumaStats getNumaStats(int pid) {
+        if (!this.logicalMemoriesMap.containsKey(pid)) {
+            throw new IllegalArgumentException("Process ID " + pid + " not found.");
+        }
+
+        if (this.numaFrames == null) {
+            throw new IllegalStateException("NUMA nodes are not enabled.");
+        }
+        return this.numaStats.get(pid);
+    }
+
+    public Map<Integer, NumaStats> getNumaStats() {
+        return new TreeMap<>(this.numaStats);
+    }
+
+    public void setRemoteAccessPenaltyNanos(long remoteAccessPenaltyNanos) {
+        if (remoteAccessPenaltyNanos < 0) {
+            throw new IllegalArgumentException("Remote access penalty cannot be negative.");
+        }
+        this.remoteAccessPenaltyNanos = remoteAccessPenaltyNanos;
+    }
+
+    public long getRemoteAccessPenaltyNanos() {
+        return this.remoteAccessPenaltyNanos;
+    }
+
+    // Total penalty charged to remote translations so far
+    public long getRemotePenaltyNanos() {
+        return this.remotePenaltyNanos;
+    }
+
+    public void resetPagingStats() {
+        this.pageFaults = 0;
+        this.pageFaultNanos = 0;
+        this.pageEvictions = 0;
+        this.swapOuts = 0;
+        this.swapIns = 0;
+        this.copyOnWriteFaults = 0;
+        this.protectionFaults = 0;
+        this.remotePenaltyNanos = 0;
+        for (NumaStats stats : this.numaStats.values()) {
+            stats.localAccesses = 0;
+            stats.remoteAccesses = 0;
+        }
+        this.hugePagesGranted = 0;
+        this.hugePageFallbacks = 0;
+    }
+
+    public static class CompactionResult {
+        private final int framesMoved;
+        private final long bytesMoved;
+        private final long elapsedNanos;
+
+        CompactionResult(int framesMoved, long bytesMoved, long elapsedNanos) {
+            this.framesMoved = framesMoved;
+            this.bytesMoved = bytesMoved;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getFramesMoved() {
+            return this.framesMoved;
+        }
+
+        public long getBytesMoved() {
+            return this.bytesMoved;
+        }
+
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Compaction moved %d frames (%d bytes) in %.3f ms",
+                    this.framesMoved, this.bytesMoved, this.elapsedNanos / 1_000_000.0);
+        }
+    }
+
+    public static class WorkingSet {
+        private final int pid;
+        private final int pages;
+        private final int dirtyPages;
+        private final int numberOfPages;
+        private final int pageSize;
+
+        WorkingSet(int pid, int pages, int dirtyPages, int numberOfPages, int pageSize) {
+            this.pid = pid;
+            this.pages = pages;
+            this.dirtyPages = dirtyPages;
+            this.numberOfPages = numberOfPages;
+            this.pageSize = pageSize;
+        }
+
+        public int getPid() {
+            return this.pid;
+        }
+
+        public int getPages() {
+            return this.pages;
+        }
+
+        // Working set pages modified since they were loaded
+        public int getDirtyPages() {
+            return this.dirtyPages;
+        }
+
+        public int getNumberOfPages() {
+            return this.numberOfPages;
+        }
+
+        public long getBytes() {
+            return (long) this.pages * this.pageSize;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PID %d: %d/%d pages in working set (%d bytes, %d dirty)",
+                    this.pid, this.pages, this.numberOfPages, this.getBytes(), this.dirtyPages);
+        }
+    }
+
+    // Translations of one process split by the node of the frame, relative to its home node
+    public static class NumaStats {
+        private final int pid;
+        private int homeNode;
+        private long localAccesses;
+        private long remoteAccesses;
+
+        NumaStats(int pid, int homeNode) {
+            this.pid = pid;
+            this.homeNode = homeNode;
+        }
+
+        public int getPid() {
+            return this.pid;
+        }
+
+        public int getHomeNode() {
+            return this.homeNode;
+        }
+
+        public long getLocalAccesses() {
+            return this.localAccesses;
+        }
+
+        public long getRemoteAccesses() {
+            return this.remoteAccesses;
+        }
+
+        // Share of local accesses in 0..1, 1 before the first access
+        public double getLocalRatio() {
+            long total = this.localAccesses + this.remoteAccesses;
+            return (total == 0) ? 1.0 : (double) this.localAccesses / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("PID %d (home node %d): %d local, %d remote accesses (%.1f%% local)",
+                    this.pid, this.homeNode, this.localAccesses, this.remoteAccesses, this.getLocalRatio() * 100);
+        }
+    }
+
+    public static class ProcessSpec {
+        private final int pid;
+        private final int size;
+
+        public ProcessSpec(int pid, int size) {
+            this.pid = pid;
+            this.size = size;
+        }
+
+        public int getPid() {
+            return this.pid;
+        }
+
+        public int getSize() {
+            return this.size;
+        }
+    }
+
+    public static class FrameState {
+        int frameNumber;
+        boolean isFree;
+        int pidOwner; // -1 indicates that the frame is free (no owner)
+        int page; // page of pidOwner held by this frame (reverse mapping used for eviction)
+        int referenceCount; // number of (pid, page) mappings, above 1 after fork
+        long[] sharers; // every (pid, page) mapping while shared, null otherwise
+
+        public FrameState(int frameNumber) {
+            this.frameNumber = frameNumber;
+            this.isFree = true;
+            this.pidOwner = -1;
+            this.page = -1;
+        }
+
+        public void allocate(int pid, int page) {
+            this.isFree = false;
+            this.pidOwner = pid;
+            this.page = page;
+            this.referenceCount = 1;
+        }
+
+        public void share(int pid, int page) {
+            if (this.sharers == null) {
+                this.sharers = new long[4];
+                this.sharers[0] = sharerKey(this.pidOwner, this.page);
+            } else if (this.referenceCount == this.sharers.length) {
+                this.sharers = Arrays.copyOf(this.sharers, this.sharers.length * 2);
+            }
+
+            this.sharers[this.referenceCount++] = sharerKey(pid, page);
+        }
+
+        // Drops the (pid, page) mapping; returns true when it was the last one and the frame is now free
+        public boolean unshare(int pid, int page) {
+            if (this.referenceCount <= 1) {
+                this.release();
+                return true;
+            }
+
+            long key = sharerKey(pid, page);
+            for (int i = 0; i < this.referenceCount; i++) {
+                if (this.sharers[i] == key) {
+                    this.sharers[i] = this.sharers[--this.referenceCount];
+                    break;
+                }
+            }
+
+            // The reverse mapping must always name a process that still maps the frame
+            this.pidOwner = (int) (this.sharers[0] >>> 32);
+            this.page = (int) this.sharers[0];
+            if (this.referenceCount == 1) {
+                this.sharers = null;
+            }
+            return false;
+        }
+
+        public int getSharerPid(int index) {
+            return this.sharers == null ? this.pidOwner : (int) (this.sharers[index] >>> 32);
+        }
+
+        public int getSharerPage(int index) {
+            return this.sharers == null ? this.page : (int) this.sharers[index];
         }
 
         public void release() {
             this.isFree = true;
             this.pidOwner = -1;
+            this.page = -1;
+            this.referenceCount = 0;
+            this.sharers = null;
+        }
+
+        static long sharerKey(int pid, int page) {
+            return ((long) pid << 32) | (page & 0xFFFFFFFFL);
         }
     }
 }
@@ -0,0 +1,350 @@
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+// Counters and latency histograms for the MemoryManager hot paths. Everything is striped
+// (LongAdder), so recording never contends and a snapshot can be taken from another thread.
+// Run with -Dmemory.metrics=false to turn every record call into a no-op: ENABLED is a
+// static final constant, so the JIT removes the disabled branches entirely.
+public class MemoryMetrics {
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("memory.metrics"));
+
+    private final LongAdder translations = new LongAdder();
+    private final LongAdder pageFaults = new LongAdder();
+    private final LongAdder frameAllocations = new LongAdder();
+    private final LongAdder failedAllocations = new LongAdder();
+    private final LongAdder framesFreed = new LongAdder();
+    private final LongAdder processesCreated = new LongAdder();
+    private final LongAdder processesDestroyed = new LongAdder();
+    private final LongAdder internalFragmentationBytes = new LongAdder(); // over live processes
+
+    private final Histogram pageFaultLatency = new Histogram();
+    private final Histogram createProcessLatency = new Histogram();
+    private final Histogram reportLatency = new Histogram();
+
+    public void recordTranslation() {
+        if (ENABLED) {
+            this.translations.increment();
+        }
+    }
+
+    public void recordPageFault(long nanos) {
+        if (ENABLED) {
+            this.pageFaults.increment();
+            this.pageFaultLatency.record(nanos);
+        }
+    }
+
+    public void recordFrameAllocations(int frames) {
+        if (ENABLED) {
+            this.frameAllocations.add(frames);
+        }
+    }
+
+    public void recordFailedAllocation() {
+        if (ENABLED) {
+            this.failedAllocations.increment();
+        }
+    }
+
+    public void recordFrameFreed() {
+        if (ENABLED) {
+            this.framesFreed.increment();
+        }
+    }
+
+    public void recordProcessCreated(long nanos, int internalFragmentationBytes) {
+        if (ENABLED) {
+            this.processesCreated.increment();
+            this.createProcessLatency.record(nanos);
+            this.internalFragmentationBytes.add(internalFragmentationBytes);
+        }
+    }
+
+    // Process brought back from a snapshot: live state only, not a creation
+    public void recordProcessRestored(int internalFragmentationBytes) {
+        if (ENABLED) {
+            this.internalFragmentationBytes.add(internalFragmentationBytes);
+        }
+    }
+
+    public void recordProcessDestroyed(int internalFragmentationBytes) {
+        if (ENABLED) {
+            this.processesDestroyed.increment();
+            this.internalFragmentationBytes.add(-internalFragmentationBytes);
+        }
+    }
+
+    public void recordReport(long nanos) {
+        if (ENABLED) {
+            this.reportLatency.record(nanos);
+        }
+    }
+
+    public void reset() {
+        this.translations.reset();
+        this.pageFaults.reset();
+        this.frameAllocations.reset();
+        this.failedAllocations.reset();
+        this.framesFreed.reset();
+        this.processesCreated.reset();
+        this.processesDestroyed.reset();
+        this.pageFaultLatency.reset();
+        this.createProcessLatency.reset();
+        this.reportLatency.reset();
+        // internalFragmentationBytes describes live processes, it is not a rate
+    }
+
+    public Snapshot snapshot(int freeFrames, int numberOfFrames, Map<Integer, Integer> fragmentationByProcess) {
+        return new Snapshot(this, freeFrames, numberOfFrames, fragmentationByProcess);
+    }
+
+    public MemoryMetricsMXBean asMXBean(IntSupplier freeFrames) {
+        return new MemoryMetricsMXBean() {
+            @Override
+            public long getTranslations() {
+                return translations.sum();
+            }
+
+            @Override
+            public long getPageFaults() {
+                return pageFaults.sum();
+            }
+
+            @Override
+            public double getPageFaultMeanNanos() {
+                return pageFaultLatency.snapshot().getMeanNanos();
+            }
+
+            @Override
+            public long getFrameAllocations() {
+                return frameAllocations.sum();
+            }
+
+            @Override
+            public long getFailedAllocations() {
+                return failedAllocations.sum();
+            }
+
+            @Override
+            public long getFramesFreed() {
+                return framesFreed.sum();
+            }
+
+            @Override
+            public long getProcessesCreated() {
+                return processesCreated.sum();
+            }
+
+            @Override
+            public long getProcessesDestroyed() {
+                return processesDestroyed.sum();
+            }
+
+            @Override
+            public long getInternalFragmentationBytes() {
+                return internalFragmentationBytes.sum();
+            }
+
+            @Override
+            public int getFreeFrames() {
+                return freeFrames.getAsInt();
+            }
+
+            @Override
+            public double getReportMeanNanos() {
+                return reportLatency.snapshot().getMeanNanos();
+            }
+        };
+    }
+
+    // Log2 buckets: bucket i counts samples in [2^(i-1), 2^i) ns, bucket 0 counts 0 ns
+    public static class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        public Histogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                this.buckets[i] = new LongAdder();
+            }
+        }
+
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            this.buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+            this.count.increment();
+            this.totalNanos.add(value);
+        }
+
+        public void reset() {
+            for (LongAdder bucket : this.buckets) {
+                bucket.reset();
+            }
+            this.count.reset();
+            this.totalNanos.reset();
+        }
+
+        public HistogramSnapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = this.buckets[i].sum();
+            }
+            return new HistogramSnapshot(counts, this.count.sum(), this.totalNanos.sum());
+        }
+    }
+
+    public static class HistogramSnapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long totalNanos;
+
+        HistogramSnapshot(long[] buckets, long count, long totalNanos) {
+            this.buckets = buckets;
+            this.count = count;
+            this.totalNanos = totalNanos;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        public double getMeanNanos() {
+            return this.count == 0 ? 0 : (double) this.totalNanos / this.count;
+        }
+
+        // Upper bound of the bucket holding the given percentile (0..100)
+        public long getPercentileNanos(double percentile) {
+            long seen = 0;
+            long target = (long) Math.ceil(this.count * percentile / 100.0);
+            for (int i = 0; i < this.buckets.length; i++) {
+                seen += this.buckets[i];
+                if (seen >= target && seen > 0) {
+                    return i == 0 ? 0 : (1L << i) - 1; // i = 63 wraps to Long.MAX_VALUE
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d mean=%.0fns p50<=%dns p99<=%dns",
+                    this.count, this.getMeanNanos(), this.getPercentileNanos(50), this.getPercentileNanos(99));
+        }
+    }
+
+    // Point-in-time copy of every metric
+    public static class Snapshot {
+        private final long translations;
+        private final long pageFaults;
+        private final long frameAllocations;
+        private final long failedAllocations;
+        private final long framesFreed;
+        private final long processesCreated;
+        private final long processesDestroyed;
+        private final long internalFragmentationBytes;
+        private final int freeFrames;
+        private final int numberOfFrames;
+        private final Map<Integer, Integer> fragmentationByProcess;
+        private final HistogramSnapshot pageFaultLatency;
+        private final HistogramSnapshot createProcessLatency;
+        private final HistogramSnapshot reportLatency;
+
+        Snapshot(MemoryMetrics metrics, int freeFrames, int numberOfFrames, Map<Integer, Integer> fragmentationByProcess) {
+            this.translations = metrics.translations.sum();
+            this.pageFaults = metrics.pageFaults.sum();
+            this.frameAllocations = metrics.frameAllocations.sum();
+            this.failedAllocations = metrics.failedAllocations.sum();
+            this.framesFreed = metrics.framesFreed.sum();
+            this.processesCreated = metrics.processesCreated.sum();
+            this.processesDestroyed = metrics.processesDestroyed.sum();
+            this.internalFragmentationBytes = metrics.internalFragmentationBytes.sum();
+            this.freeFrames = freeFrames;
+            this.numberOfFrames = numberOfFrames;
+            this.fragmentationByProcess = Collections.unmodifiableMap(fragmentationByProcess);
+            this.pageFaultLatency = metrics.pageFaultLatency.snapshot();
+            this.createProcessLatency = metrics.createProcessLatency.snapshot();
+            this.reportLatency = metrics.reportLatency.snapshot();
+        }
+
+        public long getTranslations() {
+            return this.translations;
+        }
+
+        public long getPageFaults() {
+            return this.pageFaults;
+        }
+
+        public long getFrameAllocations() {
+            return this.frameAllocations;
+        }
+
+        public long getFailedAllocations() {
+            return this.failedAllocations;
+        }
+
+        public long getFramesFreed() {
+            return this.framesFreed;
+        }
+
+        public long getProcessesCreated() {
+            return this.processesCreated;
+        }
+
+        public long getProcessesDestroyed() {
+            return this.processesDestroyed;
+        }
+
+        public long getInternalFragmentationBytes() {
+            return this.internalFragmentationBytes;
+        }
+
+        // Unused bytes in the last page of each live process
+        public Map<Integer, Integer> getFragmentationByProcess() {
+            return this.fragmentationByProcess;
+        }
+
+        public int getFreeFrames() {
+            return this.freeFrames;
+        }
+
+        public int getNumberOfFrames() {
+            return this.numberOfFrames;
+        }
+
+        public HistogramSnapshot getPageFaultLatency() {
+            return this.pageFaultLatency;
+        }
+
+        public HistogramSnapshot getCreateProcessLatency() {
+            return this.createProcessLatency;
+        }
+
+        public HistogramSnapshot getReportLatency() {
+            return this.reportLatency;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Translations: ").append(this.translations).append('\n');
+            sb.append("Page faults: ").append(this.pageFaults).append(" (").append(this.pageFaultLatency).append(")\n");
+            sb.append("Processes: ").append(this.processesCreated).append(" created, ")
+                    .append(this.processesDestroyed).append(" destroyed (create ").append(this.createProcessLatency).append(")\n");
+            sb.append("Frames: ").append(this.frameAllocations).append(" allocated, ")
+                    .append(this.framesFreed).append(" freed, ")
+                    .append(this.failedAllocations).append(" failed allocations, ")
+                    .append(this.freeFrames).append(" of ").append(this.numberOfFrames).append(" free\n");
+            sb.append("Internal fragmentation: ").append(this.internalFragmentationBytes).append(" bytes\n");
+            sb.append("Reports: ").append(this.reportLatency);
+            return sb.toString();
+        }
+    }
+}
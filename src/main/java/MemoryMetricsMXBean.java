@@ -0,0 +1,25 @@
+// JMX view of a MemoryManager's metrics, registered with MemoryManager.registerMetricsMBean.
+// Only striped counters and histogram sums are read, so it is safe to poll from the JMX thread.
+public interface MemoryMetricsMXBean {
+    long getTranslations();
+
+    long getPageFaults();
+
+    double getPageFaultMeanNanos();
+
+    long getFrameAllocations();
+
+    long getFailedAllocations();
+
+    long getFramesFreed();
+
+    long getProcessesCreated();
+
+    long getProcessesDestroyed();
+
+    long getInternalFragmentationBytes();
+
+    int getFreeFrames();
+
+    double getReportMeanNanos();
+}
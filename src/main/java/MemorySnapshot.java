@@ -0,0 +1,216 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Binary checkpoint format written by MemoryManager.saveSnapshot, streamed through one
+// reusable direct buffer over a FileChannel. Big-endian layout:
+//   header    MAGIC, VERSION, pageSize, numberOfFrames, maxProcessSize, seed (long),
+//             hugePageOrder, policy name length + bytes (0 = eager allocation)
+//   processes count, then per process: pid, size, seed (long), numberOfPages, entries[numberOfPages]
+//   frames    count of occupied frames, then per frame: frame, referenceCount,
+//             (pid << 32 | page) per mapping (long), page content
+//   swap      count of live slots, then per slot: slot, references, page content
+// Free frames are not written, so the file size follows the used memory, not the RAM size.
+public class MemorySnapshot {
+    public static final int MAGIC = 0x504D4D53; // "PMMS"
+    public static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public static class Writer implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        public Writer(Path file) throws IOException {
+            this.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        public void putInt(int value) throws IOException {
+            this.ensureSpace(Integer.BYTES);
+            this.buffer.putInt(value);
+        }
+
+        public void putLong(long value) throws IOException {
+            this.ensureSpace(Long.BYTES);
+            this.buffer.putLong(value);
+        }
+
+        public void putBytes(byte[] src, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!this.buffer.hasRemaining()) {
+                    this.flush();
+                }
+                int chunk = Math.min(length, this.buffer.remaining());
+                this.buffer.put(src, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        private void ensureSpace(int bytes) throws IOException {
+            if (this.buffer.remaining() < bytes) {
+                this.flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.flush();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    public static class Reader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        public Reader(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer.limit(0);
+        }
+
+        public int getInt() throws IOException {
+            this.ensureAvailable(Integer.BYTES);
+            return this.buffer.getInt();
+        }
+
+        public long getLong() throws IOException {
+            this.ensureAvailable(Long.BYTES);
+            return this.buffer.getLong();
+        }
+
+        public void getBytes(byte[] dst, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!this.buffer.hasRemaining()) {
+                    this.ensureAvailable(1);
+                }
+                int chunk = Math.min(length, this.buffer.remaining());
+                this.buffer.get(dst, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        private void ensureAvailable(int bytes) throws IOException {
+            if (this.buffer.remaining() >= bytes) {
+                return;
+            }
+
+            this.buffer.compact();
+            while (this.buffer.position() < bytes) {
+                if (this.channel.read(this.buffer) < 0) {
+                    throw new EOFException("Truncated memory snapshot.");
+                }
+            }
+            this.buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+
+    // Header fields, read first so that a matching MemoryManager can be built
+    public static class Header {
+        private final int pageSize;
+        private final int numberOfFrames;
+        private final int maxProcessSize;
+        private final long seed;
+        private final int hugePageOrder;
+        private final String policyName; // null for eager allocation
+
+        Header(int pageSize, int numberOfFrames, int maxProcessSize, long seed, int hugePageOrder, String policyName) {
+            this.pageSize = pageSize;
+            this.numberOfFrames = numberOfFrames;
+            this.maxProcessSize = maxProcessSize;
+            this.seed = seed;
+            this.hugePageOrder = hugePageOrder;
+            this.policyName = policyName;
+        }
+
+        public static Header read(Reader reader) throws IOException {
+            if (reader.getInt() != MAGIC) {
+                throw new IOException("Not a memory snapshot.");
+            }
+
+            int version = reader.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported memory snapshot version: " + version);
+            }
+
+            int pageSize = reader.getInt();
+            int numberOfFrames = reader.getInt();
+            int maxProcessSize = reader.getInt();
+            long seed = reader.getLong();
+            int hugePageOrder = reader.getInt();
+
+            int nameLength = reader.getInt();
+            String policyName = null;
+            if (nameLength > 0) {
+                byte[] name = new byte[nameLength];
+                reader.getBytes(name, 0, nameLength);
+                policyName = new String(name, StandardCharsets.US_ASCII);
+            }
+            return new Header(pageSize, numberOfFrames, maxProcessSize, seed, hugePageOrder, policyName);
+        }
+
+        public void write(Writer writer) throws IOException {
+            writer.putInt(MAGIC);
+            writer.putInt(VERSION);
+            writer.putInt(this.pageSize);
+            writer.putInt(this.numberOfFrames);
+            writer.putInt(this.maxProcessSize);
+            writer.putLong(this.seed);
+            writer.putInt(this.hugePageOrder);
+
+            if (this.policyName == null) {
+                writer.putInt(0);
+            } else {
+                byte[] name = this.policyName.getBytes(StandardCharsets.US_ASCII);
+                writer.putInt(name.length);
+                writer.putBytes(name, 0, name.length);
+            }
+        }
+
+        public int getPageSize() {
+            return this.pageSize;
+        }
+
+        public int getNumberOfFrames() {
+            return this.numberOfFrames;
+        }
+
+        public int getMaxProcessSize() {
+            return this.maxProcessSize;
+        }
+
+        public long getSeed() {
+            return this.seed;
+        }
+
+        public int getHugePageOrder() {
+            return this.hugePageOrder;
+        }
+
+        public String getPolicyName() {
+            return this.policyName;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+// Hierarchical page table (like x86 paging): the page number is split into one index per
+// level. Inner levels are Object[] directories, the last level holds int[] entries, and
+// every directory or leaf is only allocated when a non-zero entry is first stored under it,
+// so sparse address spaces cost memory proportional to the pages actually used.
+public class MultiLevelPageTable implements PageTable {
+    private final int numberOfPages;
+    private final int levels;
+    private final int bitsPerLevel;
+    private final int levelMask;
+    private final Object[] root;
+    private long allocatedDirectories;
+    private long allocatedLeaves;
+
+    public MultiLevelPageTable(int numberOfPages, int levels) {
+        if (levels < 2 || levels > 3) {
+            throw new IllegalArgumentException("Only two or three levels are supported: " + levels);
+        }
+
+        this.numberOfPages = numberOfPages;
+        this.levels = levels;
+
+        int pageBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, numberOfPages - 1)));
+        this.bitsPerLevel = (pageBits + levels - 1) / levels;
+        this.levelMask = (1 << this.bitsPerLevel) - 1;
+        this.root = new Object[1 << this.bitsPerLevel];
+        this.allocatedDirectories = 1;
+    }
+
+    public static PageTable.Factory factory(int levels) {
+        return (pid, numberOfPages) -> new MultiLevelPageTable(numberOfPages, levels);
+    }
+
+    @Override
+    public int getEntry(int pageNumber) {
+        this.checkPageNumber(pageNumber);
+
+        Object[] directory = this.root;
+        for (int level = this.levels - 1; level > 1; level--) {
+            directory = (Object[]) directory[(pageNumber >>> (level * this.bitsPerLevel)) & this.levelMask];
+            if (directory == null) {
+                return 0;
+            }
+        }
+
+        int[] leaf = (int[]) directory[(pageNumber >>> this.bitsPerLevel) & this.levelMask];
+        return (leaf == null) ? 0 : leaf[pageNumber & this.levelMask];
+    }
+
+    @Override
+    public void setEntry(int pageNumber, int entry) {
+        this.checkPageNumber(pageNumber);
+
+        Object[] directory = this.root;
+        for (int level = this.levels - 1; level > 1; level--) {
+            int index = (pageNumber >>> (level * this.bitsPerLevel)) & this.levelMask;
+            if (directory[index] == null) {
+                if (entry == 0) {
+                    return; // nothing to clear
+                }
+                directory[index] = new Object[1 << this.bitsPerLevel];
+                this.allocatedDirectories++;
+            }
+            directory = (Object[]) directory[index];
+        }
+
+        int index = (pageNumber >>> this.bitsPerLevel) & this.levelMask;
+        int[] leaf = (int[]) directory[index];
+        if (leaf == null) {
+            if (entry == 0) {
+                return;
+            }
+            leaf = new int[1 << this.bitsPerLevel];
+            directory[index] = leaf;
+            this.allocatedLeaves++;
+        }
+        leaf[pageNumber & this.levelMask] = entry;
+    }
+
+    private void checkPageNumber(int pageNumber) {
+        if (pageNumber < 0 || pageNumber >= this.numberOfPages) {
+            throw new IllegalArgumentException("Page number out of bounds: " + pageNumber);
+        }
+    }
+
+    @Override
+    public int getNumberOfPages() {
+        return this.numberOfPages;
+    }
+
+    // Object header + fields, plus every allocated directory (4 B references) and leaf (4 B entries)
+    @Override
+    public long getFootprintBytes() {
+        long levelBytes = 16 + 4L * (1 << this.bitsPerLevel);
+        return 48 + (this.allocatedDirectories + this.allocatedLeaves) * levelBytes;
+    }
+
+    public int getLevels() {
+        return this.levels;
+    }
+}
@@ -0,0 +1,136 @@
+// Frame allocator over a multi-node (NUMA) memory: the frames are split into numberOfNodes
+// consecutive banks (the last one takes the remainder) and every bank has its own O(1) free
+// stack, so a frame on a given node is found without scanning. The inherited stack still
+// tracks every free frame, which keeps isFree, getFreeCount and allocate() working unchanged.
+public class NumaFrameAllocator extends FrameAllocator {
+    // Where allocateOnNode goes once the home node has no free frame
+    public enum SpillPolicy {
+        STRICT, // never: the allocation fails (or, with demand paging, evicts)
+        NEXT_NODE, // the following nodes in order, wrapping around
+        MOST_FREE // the node with the most free frames
+    }
+
+    private final int numberOfNodes;
+    private final int framesPerNode;
+    private final FrameAllocator[] nodes; // local frame numbers, frame - getFirstFrame(node)
+    private SpillPolicy spillPolicy = SpillPolicy.NEXT_NODE;
+
+    public NumaFrameAllocator(int numberOfFrames, int numberOfNodes) {
+        super(numberOfFrames);
+        if (numberOfNodes < 1 || numberOfNodes > numberOfFrames) {
+            throw new IllegalArgumentException(
+                    "Number of nodes must be between 1 and the number of frames (" + numberOfFrames + "): " + numberOfNodes
+            );
+        }
+
+        this.numberOfNodes = numberOfNodes;
+        this.framesPerNode = numberOfFrames / numberOfNodes;
+        this.nodes = new FrameAllocator[numberOfNodes];
+        for (int node = 0; node < numberOfNodes; node++) {
+            int last = (node == numberOfNodes - 1) ? numberOfFrames : this.getFirstFrame(node + 1);
+            this.nodes[node] = new FrameAllocator(last - this.getFirstFrame(node));
+        }
+    }
+
+    // First free frame of the lowest node that has one
+    @Override
+    public int allocate() {
+        for (int node = 0; node < this.numberOfNodes; node++) {
+            if (this.nodes[node].getFreeCount() > 0) {
+                return this.allocateFrom(node);
+            }
+        }
+        return NO_FRAME;
+    }
+
+    @Override
+    public void allocate(int frame) {
+        super.allocate(frame);
+        int node = this.getNode(frame);
+        this.nodes[node].allocate(frame - this.getFirstFrame(node));
+    }
+
+    @Override
+    public void free(int frame) {
+        super.free(frame);
+        int node = this.getNode(frame);
+        this.nodes[node].free(frame - this.getFirstFrame(node));
+    }
+
+    // A frame on homeNode, or on another node as the spill policy allows; NO_FRAME if none
+    public int allocateOnNode(int homeNode) {
+        this.checkNode(homeNode);
+        if (this.nodes[homeNode].getFreeCount() > 0) {
+            return this.allocateFrom(homeNode);
+        }
+
+        switch (this.spillPolicy) {
+            case NEXT_NODE:
+                for (int i = 1; i < this.numberOfNodes; i++) {
+                    int node = (homeNode + i) % this.numberOfNodes;
+                    if (this.nodes[node].getFreeCount() > 0) {
+                        return this.allocateFrom(node);
+                    }
+                }
+                return NO_FRAME;
+            case MOST_FREE:
+                int best = homeNode;
+                for (int node = 0; node < this.numberOfNodes; node++) {
+                    if (this.nodes[node].getFreeCount() > this.nodes[best].getFreeCount()) {
+                        best = node;
+                    }
+                }
+                return this.nodes[best].getFreeCount() > 0 ? this.allocateFrom(best) : NO_FRAME;
+            default:
+                return NO_FRAME;
+        }
+    }
+
+    private int allocateFrom(int node) {
+        int frame = this.getFirstFrame(node) + this.nodes[node].allocate();
+        this.take(frame);
+        return frame;
+    }
+
+    // Frames an allocation for homeNode can still draw from under the spill policy
+    public int getAvailableCount(int homeNode) {
+        this.checkNode(homeNode);
+        return this.spillPolicy == SpillPolicy.STRICT ? this.nodes[homeNode].getFreeCount() : this.getFreeCount();
+    }
+
+    public int getNode(int frame) {
+        return Math.min(frame / this.framesPerNode, this.numberOfNodes - 1);
+    }
+
+    public int getFirstFrame(int node) {
+        return node * this.framesPerNode;
+    }
+
+    public int getFreeCount(int node) {
+        this.checkNode(node);
+        return this.nodes[node].getFreeCount();
+    }
+
+    public int getNumberOfFrames(int node) {
+        this.checkNode(node);
+        return this.nodes[node].getNumberOfFrames();
+    }
+
+    public int getNumberOfNodes() {
+        return this.numberOfNodes;
+    }
+
+    public SpillPolicy getSpillPolicy() {
+        return this.spillPolicy;
+    }
+
+    public void setSpillPolicy(SpillPolicy spillPolicy) {
+        this.spillPolicy = spillPolicy;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= this.numberOfNodes) {
+            throw new IllegalArgumentException("Node out of bounds: " + node);
+        }
+    }
+}
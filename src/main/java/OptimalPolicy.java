@@ -0,0 +1,98 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+// Belady's optimal policy for offline traces: evicts the page whose next use is farthest away.
+// The trace must list, in order, the (pid, page) of every translation the manager will perform.
+public class OptimalPolicy implements ReplacementPolicy {
+    private final long[] trace;
+    private final int[] nextUse; // index of the next occurrence of trace[i], or trace.length
+
+    private long[] frameKey;
+    private int[] frameNextUse;
+    private boolean[] resident;
+    private int cursor;
+
+    public OptimalPolicy(long[] trace) {
+        this.trace = trace.clone();
+        this.nextUse = new int[trace.length];
+
+        Map<Long, Integer> lastSeen = new HashMap<>();
+        for (int i = trace.length - 1; i >= 0; i--) {
+            this.nextUse[i] = lastSeen.getOrDefault(trace[i], trace.length);
+            lastSeen.put(trace[i], i);
+        }
+    }
+
+    public static OptimalPolicy forAddresses(int[] pids, int[] logicalAddresses, int pageSize) {
+        long[] keys = new long[pids.length];
+        for (int i = 0; i < pids.length; i++) {
+            keys[i] = key(pids[i], logicalAddresses[i] / pageSize);
+        }
+        return new OptimalPolicy(keys);
+    }
+
+    public static long key(int pid, int page) {
+        return ((long) pid << 32) | (page & 0xFFFFFFFFL);
+    }
+
+    @Override
+    public void init(int numberOfFrames) {
+        this.frameKey = new long[numberOfFrames];
+        this.frameNextUse = new int[numberOfFrames];
+        this.resident = new boolean[numberOfFrames];
+        Arrays.fill(this.frameNextUse, Integer.MAX_VALUE);
+        this.cursor = 0;
+    }
+
+    @Override
+    public void onLoad(int frame, int pid, int page) {
+        this.resident[frame] = true;
+        this.frameKey[frame] = key(pid, page);
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        if (this.cursor >= this.trace.length) {
+            this.frameNextUse[frame] = Integer.MAX_VALUE;
+            return;
+        }
+
+        if (this.trace[this.cursor] != this.frameKey[frame]) {
+            throw new IllegalStateException("Access #" + this.cursor + " does not match the trace given to OptimalPolicy.");
+        }
+
+        this.frameNextUse[frame] = this.nextUse[this.cursor];
+        this.cursor++;
+    }
+
+    @Override
+    public void onFree(int frame) {
+        this.resident[frame] = false;
+    }
+
+    @Override
+    public int selectVictim(IntPredicate evictable) {
+        int victim = NO_VICTIM;
+        for (int frame = 0; frame < this.resident.length; frame++) {
+            if (this.resident[frame] && evictable.test(frame)
+                    && (victim == NO_VICTIM || this.frameNextUse[frame] > this.frameNextUse[victim])) {
+                victim = frame;
+            }
+        }
+        return victim;
+    }
+
+    @Override
+    public void relocate(int[] newFrames) {
+        this.frameKey = ReplacementPolicy.permute(this.frameKey, newFrames);
+        this.frameNextUse = ReplacementPolicy.permute(this.frameNextUse, newFrames);
+        this.resident = ReplacementPolicy.permute(this.resident, newFrames);
+    }
+
+    @Override
+    public String getName() {
+        return "OPTIMAL";
+    }
+}
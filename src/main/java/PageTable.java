@@ -0,0 +1,119 @@
+// Per-process page table as seen by MemoryManager. Implementations only store packed
+// int entries; the flag logic below is shared. Entry layout: the low FRAME_BITS hold
+// the frame number (or swap slot), the high bits hold the flags. Entry 0 means unmapped.
+// The top three bits deny read/write/execute access, so 0 keeps the default full access;
+// they belong to the page rather than its frame and survive eviction and remapping.
+public interface PageTable {
+    int FRAME_BITS = 24;
+    int FRAME_MASK = (1 << FRAME_BITS) - 1;
+    int MAX_FRAMES = 1 << FRAME_BITS;
+
+    int VALID = 1 << 24;
+    int REFERENCED = 1 << 25;
+    int DIRTY = 1 << 26;
+    int SWAPPED = 1 << 27; // not resident, the low bits hold a swap slot
+    int HUGE = 1 << 28; // part of a huge page: a contiguous, aligned frame run mapped as one unit
+
+    // Protection, as passed to setProtection (mprotect style)
+    int PROT_NONE = 0;
+    int PROT_READ = 1;
+    int PROT_WRITE = 2;
+    int PROT_EXEC = 4;
+    int PROT_ALL = PROT_READ | PROT_WRITE | PROT_EXEC;
+
+    int PROTECTION_SHIFT = 29;
+    int NO_READ = PROT_READ << PROTECTION_SHIFT;
+    int NO_WRITE = PROT_WRITE << PROTECTION_SHIFT;
+    int NO_EXEC = PROT_EXEC << PROTECTION_SHIFT;
+    int PROTECTION_MASK = NO_READ | NO_WRITE | NO_EXEC;
+
+    int getEntry(int pageNumber);
+
+    void setEntry(int pageNumber, int entry);
+
+    int getNumberOfPages();
+
+    // Approximate heap usage of this table
+    long getFootprintBytes();
+
+    // Called once the owning process is destroyed
+    default void release() {
+    }
+
+    default int getFrameByPage(int pageNumber) {
+        int entry = this.getEntry(pageNumber);
+        if ((entry & VALID) == 0) {
+            throw new IllegalStateException("Page " + pageNumber + " is not mapped to a frame.");
+        }
+
+        return entry & FRAME_MASK;
+    }
+
+    default void setFrame(int pageNumber, int frame) {
+        this.setEntry(pageNumber, frame | VALID | (this.getEntry(pageNumber) & PROTECTION_MASK));
+    }
+
+    default void invalidate(int pageNumber) {
+        this.setEntry(pageNumber, this.getEntry(pageNumber) & PROTECTION_MASK);
+    }
+
+    default void setSwapSlot(int pageNumber, int slot) {
+        this.setEntry(pageNumber, slot | SWAPPED | (this.getEntry(pageNumber) & PROTECTION_MASK));
+    }
+
+    default int getSwapSlot(int pageNumber) {
+        int entry = this.getEntry(pageNumber);
+        if ((entry & SWAPPED) == 0) {
+            throw new IllegalStateException("Page " + pageNumber + " is not in swap.");
+        }
+
+        return entry & FRAME_MASK;
+    }
+
+    default boolean isSwapped(int pageNumber) {
+        return (this.getEntry(pageNumber) & SWAPPED) != 0;
+    }
+
+    default boolean isValid(int pageNumber) {
+        return (this.getEntry(pageNumber) & VALID) != 0;
+    }
+
+    default boolean isReferenced(int pageNumber) {
+        return (this.getEntry(pageNumber) & REFERENCED) != 0;
+    }
+
+    default boolean isHuge(int pageNumber) {
+        return (this.getEntry(pageNumber) & HUGE) != 0;
+    }
+
+    default boolean isDirty(int pageNumber) {
+        return (this.getEntry(pageNumber) & DIRTY) != 0;
+    }
+
+    // PROT_* bits of the allowed accesses
+    default int getProtection(int pageNumber) {
+        return ~(this.getEntry(pageNumber) >>> PROTECTION_SHIFT) & PROT_ALL;
+    }
+
+    default void setProtection(int pageNumber, int protection) {
+        if ((protection & ~PROT_ALL) != 0) {
+            throw new IllegalArgumentException("Invalid protection: " + protection);
+        }
+
+        int denied = (~protection & PROT_ALL) << PROTECTION_SHIFT;
+        this.setEntry(pageNumber, (this.getEntry(pageNumber) & ~PROTECTION_MASK) | denied);
+    }
+
+    default void setFlags(int pageNumber, int flags) {
+        this.setEntry(pageNumber, this.getEntry(pageNumber) | flags);
+    }
+
+    default void clearFlags(int pageNumber, int flags) {
+        this.setEntry(pageNumber, this.getEntry(pageNumber) & ~flags);
+    }
+
+    // Creates the (initially unmapped) page table of a new process
+    interface Factory {
+        PageTable create(int pid, int numberOfPages);
+    }
+}
@@ -1,19 +1,46 @@
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-public class PagesTable {
-    Map<Integer, Integer> pagesTable;
+// Flat page table: one packed int entry per page in a dense array.
+public class PagesTable implements PageTable {
+    private final int[] entries;
 
     public PagesTable(int numberOfPages, int[] allocatedFrames) {
-        this.pagesTable = new LinkedHashMap<>();
+        this.entries = new int[numberOfPages];
 
         for (int i = 0; i < numberOfPages; i++) {
-            pagesTable.putIfAbsent(i, allocatedFrames[i]);
+            this.entries[i] = allocatedFrames[i] | VALID;
         }
+    }
+
+    // Demand paging: every page starts unmapped and is loaded on first access
+    public PagesTable(int numberOfPages) {
+        this.entries = new int[numberOfPages];
+    }
+
+    @Override
+    public int getEntry(int pageNumber) {
+        this.checkPageNumber(pageNumber);
+        return this.entries[pageNumber];
+    }
+
+    @Override
+    public void setEntry(int pageNumber, int entry) {
+        this.checkPageNumber(pageNumber);
+        this.entries[pageNumber] = entry;
+    }
+
+    private void checkPageNumber(int pageNumber) {
+        if (pageNumber < 0 || pageNumber >= this.entries.length) {
+            throw new IllegalArgumentException("Page number out of bounds: " + pageNumber);
+        }
+    }
 
+    @Override
+    public int getNumberOfPages() {
+        return this.entries.length;
     }
 
-    public int getFrameByPage(int pageNumber) {
-        return this.pagesTable.get(pageNumber);
+    // Approximate heap usage: object header + array reference + int[] header and payload.
+    @Override
+    public long getFootprintBytes() {
+        return 16 + 16 + 4L * this.entries.length;
     }
 }
@@ -1,51 +1,98 @@
-public class PhysicalMemory {
-    private final byte[] physicalMemory;
+public class PhysicalMemory implements AutoCloseable {
+    private final MemoryBackend physicalMemory;
+    private final long size;
     private final int frameSize;
     private final int numberOfFrames;
 
     public PhysicalMemory(int size, int frameSize) {
-        this.physicalMemory = new byte[size];
+        this(new HeapMemoryBackend(size), frameSize);
+    }
+
+    public PhysicalMemory(MemoryBackend backend, int frameSize) {
+        this.physicalMemory = backend;
+        this.size = backend.size();
         this.frameSize = frameSize;
-        this.numberOfFrames = this.calculateNumberOfFrames();
+
+        long frames = this.size / frameSize;
+        if (frames > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many frames: " + frames);
+        }
+        this.numberOfFrames = (int) frames;
     }
 
-    public int getAddressByFrame(int frame) {
+    public long getAddressByFrame(int frame) {
         if (frame < 0 || frame >= this.getNumberOfFrames()) {
             throw new IllegalArgumentException("Frame out of bounds: " + frame);
         }
 
-        return frame * this.frameSize;
+        return (long) frame * this.frameSize;
     }
 
-    public int getFrameByAddress(int physicalAddress) {
-        if (physicalAddress < 0 || physicalAddress >= this.physicalMemory.length) {
+    public int getFrameByAddress(long physicalAddress) {
+        if (physicalAddress < 0 || physicalAddress >= this.size) {
             throw new IllegalArgumentException("Physical address out of bounds: " +  physicalAddress);
         }
 
-        return physicalAddress / this.frameSize;
+        return (int) (physicalAddress / this.frameSize);
     }
 
-    public void writeByte(int physicalAddress, byte data) {
-        if (physicalAddress < 0 || physicalAddress >= this.physicalMemory.length) {
+    public void writeByte(long physicalAddress, byte data) {
+        if (physicalAddress < 0 || physicalAddress >= this.size) {
             throw new IllegalArgumentException("Physical address out of bounds: " + physicalAddress);
         }
 
-        this.physicalMemory[physicalAddress] = data;
+        this.physicalMemory.put(physicalAddress, data);
     }
 
-    public byte readByte(int physicalAddress) {
-        if (physicalAddress < 0 || physicalAddress >= this.physicalMemory.length) {
+    public byte readByte(long physicalAddress) {
+        if (physicalAddress < 0 || physicalAddress >= this.size) {
             throw new IllegalArgumentException("Physical address out of bounds: " + physicalAddress);
         }
 
-        return this.physicalMemory[physicalAddress];
+        return this.physicalMemory.get(physicalAddress);
+    }
+
+    public void write(long physicalAddress, byte[] src, int srcOffset, int length) {
+        this.checkRange(physicalAddress, length);
+        this.physicalMemory.write(physicalAddress, src, srcOffset, length);
+    }
+
+    public void read(long physicalAddress, byte[] dst, int dstOffset, int length) {
+        this.checkRange(physicalAddress, length);
+        this.physicalMemory.read(physicalAddress, dst, dstOffset, length);
     }
 
-    private int calculateNumberOfFrames() {
-        return this.physicalMemory.length / this.frameSize;
+    public void clear(long physicalAddress, int length) {
+        this.checkRange(physicalAddress, length);
+        this.physicalMemory.clear(physicalAddress, length);
+    }
+
+    private void checkRange(long physicalAddress, int length) {
+        if (physicalAddress < 0 || length < 0 || physicalAddress > this.size - length) {
+            throw new IllegalArgumentException(
+                    "Physical address range out of bounds: " + physicalAddress + " (+" + length + ")"
+            );
+        }
     }
 
     public int getNumberOfFrames() {
         return numberOfFrames;
     }
+
+    public int getFrameSize() {
+        return this.frameSize;
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    public MemoryBackend getBackend() {
+        return this.physicalMemory;
+    }
+
+    @Override
+    public void close() {
+        this.physicalMemory.close();
+    }
 }
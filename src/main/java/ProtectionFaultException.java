@@ -0,0 +1,42 @@
+// Raised when an access is denied by the protection bits of the page (see PageTable.setProtection).
+// Distinct from the IllegalArgumentException of an address outside the process, so callers
+// can tell a segmentation fault from a protection violation.
+public class ProtectionFaultException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int pid;
+    private final int page;
+    private final int access; // PageTable.PROT_READ, PROT_WRITE or PROT_EXEC
+
+    public ProtectionFaultException(int pid, int page, int access) {
+        super("Protection fault: process " + pid + " cannot " + accessName(access) + " page " + page + ".");
+        this.pid = pid;
+        this.page = page;
+        this.access = access;
+    }
+
+    private static String accessName(int access) {
+        switch (access) {
+            case PageTable.PROT_READ:
+                return "read";
+            case PageTable.PROT_WRITE:
+                return "write";
+            case PageTable.PROT_EXEC:
+                return "execute";
+            default:
+                return "access";
+        }
+    }
+
+    public int getPid() {
+        return this.pid;
+    }
+
+    public int getPage() {
+        return this.page;
+    }
+
+    public int getAccess() {
+        return this.access;
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.function.IntPredicate;
+
+// Chooses which resident frame to evict when demand paging runs out of free frames.
+// Policies are frame-indexed so they can keep their bookkeeping in primitive arrays.
+public interface ReplacementPolicy {
+    int NO_VICTIM = -1;
+
+    void init(int numberOfFrames);
+
+    // A page of process pid has just been loaded into frame
+    void onLoad(int frame, int pid, int page);
+
+    // Called on every translation that resolves to a resident frame (including right after onLoad)
+    void onAccess(int frame);
+
+    // The frame is no longer resident (evicted or released by its process)
+    void onFree(int frame);
+
+    // Returns a resident frame accepted by evictable, or NO_VICTIM if there is none
+    int selectVictim(IntPredicate evictable);
+
+    // Memory compaction moved the content of every frame f to newFrames[f] (a permutation);
+    // the policy keeps its state by moving its per-frame bookkeeping the same way
+    void relocate(int[] newFrames);
+
+    String getName();
+
+    static boolean[] permute(boolean[] values, int[] newFrames) {
+        boolean[] moved = new boolean[values.length];
+        for (int frame = 0; frame < values.length; frame++) {
+            moved[newFrames[frame]] = values[frame];
+        }
+        return moved;
+    }
+
+    static long[] permute(long[] values, int[] newFrames) {
+        long[] moved = new long[values.length];
+        for (int frame = 0; frame < values.length; frame++) {
+            moved[newFrames[frame]] = values[frame];
+        }
+        return moved;
+    }
+
+    static int[] permute(int[] values, int[] newFrames) {
+        int[] moved = new int[values.length];
+        for (int frame = 0; frame < values.length; frame++) {
+            moved[newFrames[frame]] = values[frame];
+        }
+        return moved;
+    }
+
+    static ReplacementPolicy byName(String name) {
+        switch (name.toUpperCase()) {
+            case "FIFO":
+                return new FifoPolicy();
+            case "LRU":
+                return new LruPolicy();
+            case "CLOCK":
+                return new ClockPolicy();
+            case "LFU":
+                return new LfuPolicy();
+            default:
+                throw new IllegalArgumentException("Unknown replacement policy: " + name);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.Arrays;
+
+// Backing store for evicted dirty pages: page-sized slots in one growable byte[],
+// with released slots recycled through an int stack. Slots are reference counted so
+// forked processes can share a swapped page until one of them brings it back.
+public class SwapSpace {
+    private final int pageSize;
+    private byte[] data;
+    private int[] freeSlots;
+    private int[] references;
+    private int freeCount;
+    private int slotsInUse;
+    private int highWaterMark;
+
+    public SwapSpace(int pageSize) {
+        this.pageSize = pageSize;
+        this.data = new byte[pageSize * 16];
+        this.freeSlots = new int[16];
+        this.references = new int[16];
+    }
+
+    public int swapOut(PhysicalMemory physicalMemory, long physicalAddress) {
+        int slot = this.allocateSlot();
+        physicalMemory.read(physicalAddress, this.data, slot * this.pageSize, this.pageSize);
+        return slot;
+    }
+
+    public void swapIn(int slot, PhysicalMemory physicalMemory, long physicalAddress) {
+        this.checkSlot(slot);
+        physicalMemory.write(physicalAddress, this.data, slot * this.pageSize, this.pageSize);
+        this.release(slot);
+    }
+
+    public void retain(int slot) {
+        this.checkSlot(slot);
+        this.references[slot]++;
+    }
+
+    // Drops one reference; the slot is recycled once nobody refers to it
+    public void release(int slot) {
+        this.checkSlot(slot);
+        if (--this.references[slot] > 0) {
+            return;
+        }
+
+        if (this.freeCount == this.freeSlots.length) {
+            this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeSlots.length * 2);
+        }
+        this.freeSlots[this.freeCount++] = slot;
+        this.slotsInUse--;
+    }
+
+    // Slot numbers are stored in the FRAME_MASK field of page table entries, which bounds them
+    // as well as the byte[] limit does (the tighter of the two for pages under 128 bytes)
+    private int allocateSlot() {
+        if (this.freeCount > 0) {
+            int slot = this.freeSlots[--this.freeCount];
+            this.references[slot] = 1;
+            this.slotsInUse++;
+            return slot;
+        }
+
+        int slot = this.highWaterMark;
+        long length = (long) (slot + 1) * this.pageSize;
+        if (slot > PageTable.FRAME_MASK || length > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Swap space exhausted.");
+        }
+        if (length > this.data.length) {
+            this.data = Arrays.copyOf(this.data, (int) Math.max(length, Math.min((long) this.data.length * 2, Integer.MAX_VALUE - 8)));
+        }
+        if (slot == this.references.length) {
+            this.references = Arrays.copyOf(this.references, this.references.length * 2);
+        }
+        this.references[slot] = 1;
+        this.highWaterMark++;
+        this.slotsInUse++;
+        return slot;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= this.highWaterMark || this.references[slot] == 0) {
+            throw new IllegalArgumentException("Invalid swap slot: " + slot);
+        }
+    }
+
+    // Snapshot support: slots are dumped with their reference counts and restored into fresh slots
+    public int getSlotCapacity() {
+        return this.highWaterMark;
+    }
+
+    public int getReferences(int slot) {
+        return (slot < 0 || slot >= this.highWaterMark) ? 0 : this.references[slot];
+    }
+
+    public void readSlot(int slot, byte[] dst) {
+        this.checkSlot(slot);
+        System.arraycopy(this.data, slot * this.pageSize, dst, 0, this.pageSize);
+    }
+
+    public int restoreSlot(byte[] src, int references) {
+        if (references <= 0) {
+            throw new IllegalArgumentException("Invalid swap slot references: " + references);
+        }
+
+        int slot = this.allocateSlot();
+        System.arraycopy(src, 0, this.data, slot * this.pageSize, this.pageSize);
+        this.references[slot] = references;
+        return slot;
+    }
+
+    public int getSlotsInUse() {
+        return this.slotsInUse;
+    }
+}
@@ -0,0 +1,178 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Replays the same workload against many configurations, each on its own MemoryManager, using a
+// fixed pool of threads. Runs share no state, but they do share the cores: throughput figures
+// of concurrent runs are only comparable with each other (use one thread for absolute numbers).
+// Every run uses the --seed option for its process images, so rows are reproducible.
+public class SweepRunner {
+    public static final String CSV_HEADER = "memory_bytes,page_size,policy,seed,frames,events,reads,writes,failures,"
+            + "elapsed_ms,events_per_sec,page_faults,page_fault_rate,evictions,swap_outs,"
+            + "free_memory_pct,internal_fragmentation_bytes,error";
+
+    private final CommandLineOptions options;
+
+    public SweepRunner(CommandLineOptions options) {
+        this.options = options;
+    }
+
+    // Results in the order of the configurations
+    public List<Result> run(List<Configuration> configurations, int threads) throws InterruptedException {
+        List<Callable<Result>> tasks = new ArrayList<>();
+        for (Configuration configuration : configurations) {
+            tasks.add(() -> this.run(configuration));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, configurations.size())));
+        try {
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : executor.invokeAll(tasks)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Sweep run failed unexpectedly.", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // One configuration; a configuration the simulator rejects yields a result with an error instead
+    public Result run(Configuration configuration) {
+        try (MemoryManager memoryManager = new MemoryManager(
+                configuration.physicalMemorySize, configuration.pageSize, this.options.getMaxProcessSize())) {
+            memoryManager.setSeed(this.options.getSeed());
+            if (!configuration.policy.equals("NONE")) {
+                memoryManager.enableDemandPaging(ReplacementPolicy.byName(configuration.policy));
+            }
+
+            try (Reader workload = this.options.openWorkload()) {
+                TraceReplayer.ReplayResult replay = new TraceReplayer(memoryManager).replay(workload);
+                long internalFragmentation = 0;
+                for (int bytes : memoryManager.getMetricsSnapshot().getFragmentationByProcess().values()) {
+                    internalFragmentation += bytes;
+                }
+                return new Result(configuration, this.options.getSeed(), memoryManager.getNumberOfFrames(), replay,
+                        memoryManager.getPageEvictions(), memoryManager.getSwapOuts(), internalFragmentation, null);
+            }
+        } catch (IOException | RuntimeException e) {
+            return new Result(configuration, this.options.getSeed(), 0, null, 0, 0, 0, e.getMessage());
+        }
+    }
+
+    public static void writeCsv(List<Result> results, Appendable out) throws IOException {
+        out.append(CSV_HEADER).append('\n');
+        for (Result result : results) {
+            out.append(result.toCsv()).append('\n');
+        }
+    }
+
+    public static class Configuration {
+        private final int physicalMemorySize;
+        private final int pageSize;
+        private final String policy; // NONE = eager allocation
+
+        public Configuration(int physicalMemorySize, int pageSize, String policy) {
+            this.physicalMemorySize = physicalMemorySize;
+            this.pageSize = pageSize;
+            this.policy = policy;
+        }
+
+        public int getPhysicalMemorySize() {
+            return this.physicalMemorySize;
+        }
+
+        public int getPageSize() {
+            return this.pageSize;
+        }
+
+        public String getPolicy() {
+            return this.policy;
+        }
+    }
+
+    public static class Result {
+        private final Configuration configuration;
+        private final long seed;
+        private final int frames;
+        private final TraceReplayer.ReplayResult replay; // null if the run failed
+        private final long evictions;
+        private final long swapOuts;
+        private final long internalFragmentationBytes;
+        private final String error;
+
+        Result(Configuration configuration, long seed, int frames, TraceReplayer.ReplayResult replay,
+               long evictions, long swapOuts, long internalFragmentationBytes, String error) {
+            this.configuration = configuration;
+            this.seed = seed;
+            this.frames = frames;
+            this.replay = replay;
+            this.evictions = evictions;
+            this.swapOuts = swapOuts;
+            this.internalFragmentationBytes = internalFragmentationBytes;
+            this.error = error;
+        }
+
+        public Configuration getConfiguration() {
+            return this.configuration;
+        }
+
+        public long getSeed() {
+            return this.seed;
+        }
+
+        public TraceReplayer.ReplayResult getReplay() {
+            return this.replay;
+        }
+
+        public long getEvictions() {
+            return this.evictions;
+        }
+
+        public long getSwapOuts() {
+            return this.swapOuts;
+        }
+
+        public long getInternalFragmentationBytes() {
+            return this.internalFragmentationBytes;
+        }
+
+        public String getError() {
+            return this.error;
+        }
+
+        public String toCsv() {
+            Configuration c = this.configuration;
+            if (this.replay == null) {
+                return c.physicalMemorySize + "," + c.pageSize + "," + c.policy + "," + this.seed + ",,,,,,,,,,,,,," + csvField(this.error);
+            }
+
+            TraceReplayer.ReplayResult r = this.replay;
+            long accesses = r.getReads() + r.getWrites();
+            return String.format(Locale.ROOT, "%d,%d,%s,%d,%d,%d,%d,%d,%d,%.3f,%.0f,%d,%.6f,%d,%d,%.2f,%d,",
+                    c.physicalMemorySize, c.pageSize, c.policy, this.seed, this.frames,
+                    r.getEvents(), r.getReads(), r.getWrites(), r.getFailures(),
+                    r.getElapsedNanos() / 1e6, r.getEventsPerSecond(),
+                    r.getPageFaults(), accesses == 0 ? 0.0 : (double) r.getPageFaults() / accesses,
+                    this.evictions, this.swapOuts,
+                    r.getFreeMemoryPercentage(), this.internalFragmentationBytes);
+        }
+
+        private static String csvField(String value) {
+            if (value == null) {
+                return "";
+            }
+            return "\"" + value.replace("\"", "\"\"").replace('\n', ' ') + "\"";
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import java.io.Reader;
+import java.util.SplittableRandom;
+
+// Generated workload in the TraceReplayer format, produced line by line as it is read, so
+// sweeps do not need trace files. It creates `processes` processes of processSize bytes, then
+// emits `events` single-byte accesses: each picks a process uniformly and, with probability
+// HOT_PROBABILITY, an address in the first HOT_FRACTION of it (the hot set), else anywhere.
+// A share of writeRatio of the accesses are writes. The same seed yields the same trace.
+public class SyntheticTrace extends Reader {
+    private static final double HOT_PROBABILITY = 0.8;
+    private static final double HOT_FRACTION = 0.2;
+
+    private final int processes;
+    private final int processSize;
+    private final long events;
+    private final double writeRatio;
+    private final SplittableRandom random;
+
+    private final StringBuilder line = new StringBuilder(32);
+    private int linePosition;
+    private int created;
+    private long emitted;
+
+    public SyntheticTrace(int processes, int processSize, long events, double writeRatio, long seed) {
+        if (processes <= 0 || processSize <= 0 || events < 0 || writeRatio < 0 || writeRatio > 1) {
+            throw new IllegalArgumentException("Invalid synthetic workload: " + processes + " processes of " + processSize
+                    + " bytes, " + events + " events, write ratio " + writeRatio);
+        }
+
+        this.processes = processes;
+        this.processSize = processSize;
+        this.events = events;
+        this.writeRatio = writeRatio;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        int count = 0;
+        while (count < length) {
+            if (this.linePosition == this.line.length() && !this.nextLine()) {
+                break;
+            }
+
+            int chunk = Math.min(length - count, this.line.length() - this.linePosition);
+            this.line.getChars(this.linePosition, this.linePosition + chunk, buffer, offset + count);
+            this.linePosition += chunk;
+            count += chunk;
+        }
+        return (count == 0 && length > 0) ? -1 : count;
+    }
+
+    private boolean nextLine() {
+        this.line.setLength(0);
+        this.linePosition = 0;
+        if (this.created < this.processes) {
+            this.created++;
+            this.line.append("C ").append(this.created).append(' ').append(this.processSize).append('\n');
+            return true;
+        }
+
+        if (this.emitted == this.events) {
+            return false;
+        }
+        this.emitted++;
+
+        int pid = 1 + this.random.nextInt(this.processes);
+        int hotSize = Math.max(1, (int) (this.processSize * HOT_FRACTION));
+        int address = this.random.nextDouble() < HOT_PROBABILITY
+                ? this.random.nextInt(hotSize)
+                : this.random.nextInt(this.processSize);
+        if (this.random.nextDouble() < this.writeRatio) {
+            this.line.append("W ").append(pid).append(' ').append(address).append(' ').append(this.random.nextInt(256) - 128);
+        } else {
+            this.line.append("R ").append(pid).append(' ').append(address);
+        }
+        this.line.append('\n');
+        return true;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,224 @@
+import java.util.Arrays;
+import java.util.Random;
+
+public class Tlb {
+    public static final int MISS = -1;
+
+    public enum Replacement { LRU, RANDOM }
+
+    // PID_TAGGED keeps entries of several processes side by side (like ASIDs),
+    // FLUSH_ON_SWITCH empties the whole TLB every time a different PID is translated.
+    public enum TaggingMode { PID_TAGGED, FLUSH_ON_SWITCH }
+
+    // Huge page entries are tagged so that (pid, huge page index) never collides with a base page
+    private static final int HUGE_TAG = 1 << 30;
+
+    private final int size;
+    private final int associativity;
+    private final int numberOfSets;
+    private final Replacement replacement;
+    private final TaggingMode taggingMode;
+
+    // One slot per entry, grouped by set: slots [set * associativity, (set + 1) * associativity)
+    private final int[] pids;
+    private final int[] pages;
+    private final int[] frames;
+    private final long[] lastUse;
+    private final Random random = new Random();
+
+    private long useCounter;
+    private int currentPid = -1;
+    private int hugePageShift; // log2(base pages per huge page), 0 while huge pages are off
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long flushes;
+
+    public Tlb(int size, int associativity, Replacement replacement, TaggingMode taggingMode) {
+        if (size <= 0 || associativity <= 0 || size % associativity != 0) {
+            throw new IllegalArgumentException(
+                    "TLB size (" + size + ") must be a positive multiple of the associativity (" + associativity + ")."
+            );
+        }
+
+        this.size = size;
+        this.associativity = associativity;
+        this.numberOfSets = size / associativity;
+        this.replacement = replacement;
+        this.taggingMode = taggingMode;
+
+        this.pids = new int[size];
+        this.pages = new int[size];
+        this.frames = new int[size];
+        this.lastUse = new long[size];
+        Arrays.fill(this.pages, -1); // page -1 marks an invalid slot
+    }
+
+    public int lookup(int pid, int page) {
+        if (this.taggingMode == TaggingMode.FLUSH_ON_SWITCH && pid != this.currentPid) {
+            if (this.currentPid != -1) {
+                this.flush();
+            }
+            this.currentPid = pid;
+        }
+
+        int slot = this.find(pid, page);
+        if (slot != -1) {
+            this.hits++;
+            this.lastUse[slot] = ++this.useCounter;
+            return this.frames[slot];
+        }
+
+        // One huge entry covers 2^hugePageShift base pages, which is what extends the TLB reach
+        if (this.hugePageShift != 0) {
+            slot = this.find(pid, this.hugeKey(page));
+            if (slot != -1) {
+                this.hits++;
+                this.lastUse[slot] = ++this.useCounter;
+                return this.frames[slot] + (page & ((1 << this.hugePageShift) - 1));
+            }
+        }
+
+        this.misses++;
+        return MISS;
+    }
+
+    // Caches the whole huge page containing page; frame is the frame of page itself
+    public void insertHuge(int pid, int page, int frame) {
+        if (this.hugePageShift == 0) {
+            throw new IllegalStateException("Huge pages are not enabled in the TLB.");
+        }
+
+        this.insert(pid, this.hugeKey(page), frame - (page & ((1 << this.hugePageShift) - 1)));
+    }
+
+    public void insert(int pid, int page, int frame) {
+        int start = this.setStart(page);
+        int victim = -1;
+        for (int slot = start; slot < start + this.associativity; slot++) {
+            if (this.pages[slot] == -1) {
+                victim = slot;
+                break;
+            }
+        }
+
+        if (victim == -1) {
+            victim = this.selectVictim(start);
+            this.evictions++;
+        }
+
+        this.pids[victim] = pid;
+        this.pages[victim] = page;
+        this.frames[victim] = frame;
+        this.lastUse[victim] = ++this.useCounter;
+    }
+
+    public void invalidate(int pid, int page) {
+        int slot = this.find(pid, page);
+        if (slot != -1) {
+            this.pages[slot] = -1;
+        }
+
+        if (this.hugePageShift != 0) {
+            slot = this.find(pid, this.hugeKey(page));
+            if (slot != -1) {
+                this.pages[slot] = -1;
+            }
+        }
+    }
+
+    private int find(int pid, int key) {
+        int start = this.setStart(key);
+        for (int slot = start; slot < start + this.associativity; slot++) {
+            if (this.pages[slot] == key && this.pids[slot] == pid) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int hugeKey(int page) {
+        return HUGE_TAG | (page >>> this.hugePageShift);
+    }
+
+    public void setHugePageShift(int hugePageShift) {
+        if (hugePageShift < 0 || hugePageShift >= 24) {
+            throw new IllegalArgumentException("Invalid huge page shift: " + hugePageShift);
+        }
+
+        this.hugePageShift = hugePageShift;
+        Arrays.fill(this.pages, -1); // cached frames are stale under the new key layout
+    }
+
+    public int getHugePageShift() {
+        return this.hugePageShift;
+    }
+
+    public void invalidatePid(int pid) {
+        for (int slot = 0; slot < this.size; slot++) {
+            if (this.pids[slot] == pid) {
+                this.pages[slot] = -1;
+            }
+        }
+    }
+
+    public void flush() {
+        Arrays.fill(this.pages, -1);
+        this.flushes++;
+    }
+
+    private int selectVictim(int start) {
+        if (this.replacement == Replacement.RANDOM) {
+            return start + this.random.nextInt(this.associativity);
+        }
+
+        int victim = start;
+        for (int slot = start + 1; slot < start + this.associativity; slot++) {
+            if (this.lastUse[slot] < this.lastUse[victim]) {
+                victim = slot;
+            }
+        }
+        return victim;
+    }
+
+    private int setStart(int page) {
+        return (page % this.numberOfSets) * this.associativity;
+    }
+
+    public void resetStats() {
+        this.hits = 0;
+        this.misses = 0;
+        this.evictions = 0;
+        this.flushes = 0;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public int getAssociativity() {
+        return this.associativity;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    public long getMisses() {
+        return this.misses;
+    }
+
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    public long getFlushes() {
+        return this.flushes;
+    }
+
+    public float getHitRatio() {
+        long lookups = this.hits + this.misses;
+        return lookups == 0 ? 0 : (float) this.hits / lookups;
+    }
+}
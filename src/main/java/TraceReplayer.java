@@ -0,0 +1,305 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+// Headless driver: streams an address trace through a MemoryManager in fixed-size batches,
+// so the trace is never fully loaded in memory. One event per line, '#' starts a comment:
+//   C <pid> <size>              create process
+//   R <pid> <logicalAddress>    read one byte
+//   W <pid> <logicalAddress> <value>  write one byte (-128..255, stored as (byte) value)
+//   X <pid> <logicalAddress>    fetch one byte for execution
+//   P <pid> <logicalAddress> <length> <protection>  set PROT_* bits (1 read, 2 write, 4 execute)
+//   T <pid>                     terminate process
+public class TraceReplayer {
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private static final byte CREATE = 'C';
+    private static final byte READ = 'R';
+    private static final byte WRITE = 'W';
+    private static final byte EXECUTE = 'X';
+    private static final byte PROTECT = 'P';
+    private static final byte TERMINATE = 'T';
+
+    private final MemoryManager memoryManager;
+    private final int batchSize;
+
+    // Current batch, kept in parallel primitive arrays and reused across batches
+    private final byte[] operations;
+    private final int[] pids;
+    private final int[] arguments;
+    private final int[] values;
+    private final int[] protections;
+
+    private final int[] parsedFields = new int[4];
+    private long checksum; // consumes read results so they are not optimized away
+
+    public TraceReplayer(MemoryManager memoryManager) {
+        this(memoryManager, DEFAULT_BATCH_SIZE);
+    }
+
+    public TraceReplayer(MemoryManager memoryManager, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+
+        this.memoryManager = memoryManager;
+        this.batchSize = batchSize;
+        this.operations = new byte[batchSize];
+        this.pids = new int[batchSize];
+        this.arguments = new int[batchSize];
+        this.values = new int[batchSize];
+        this.protections = new int[batchSize];
+    }
+
+    public ReplayResult replay(Reader trace) throws IOException {
+        ReplayResult result = new ReplayResult();
+        BufferedReader reader = (trace instanceof BufferedReader) ? (BufferedReader) trace : new BufferedReader(trace, 1 << 16);
+
+        // Counters of this replay only, the manager may have been used before
+        long pageFaultsBefore = this.memoryManager.getPageFaults();
+        this.checksum = 0;
+
+        long start = System.nanoTime();
+        int lineNumber = 0;
+        int batched = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (this.parse(line, lineNumber, batched)) {
+                batched++;
+            }
+
+            if (batched == this.batchSize) {
+                this.execute(batched, result);
+                batched = 0;
+            }
+        }
+        this.execute(batched, result);
+
+        result.elapsedNanos = System.nanoTime() - start;
+        result.pageFaults = this.memoryManager.getPageFaults() - pageFaultsBefore;
+        result.freeMemoryPercentage = this.memoryManager.getFreeMemoryPercentage();
+        result.checksum = this.checksum;
+        return result;
+    }
+
+    // Stores the event of line into the batch slot; returns false for blank and comment lines
+    private boolean parse(String line, int lineNumber, int slot) {
+        int length = line.length();
+        int position = skipSpaces(line, 0);
+        if (position == length || line.charAt(position) == '#') {
+            return false;
+        }
+
+        char operation = Character.toUpperCase(line.charAt(position));
+        int fields;
+        switch (operation) {
+            case 'C':
+            case 'R':
+            case 'X':
+                fields = 2;
+                break;
+            case 'W':
+                fields = 3;
+                break;
+            case 'P':
+                fields = 4;
+                break;
+            case 'T':
+                fields = 1;
+                break;
+            default:
+                throw new IllegalArgumentException("Line " + lineNumber + ": unknown trace event '" + operation + "'");
+        }
+
+        int[] parsed = this.parsedFields;
+        position++;
+        for (int field = 0; field < fields; field++) {
+            position = skipSpaces(line, position);
+            if (position == length) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected " + fields + " numbers after '" + operation + "'");
+            }
+
+            boolean negative = line.charAt(position) == '-';
+            if (negative) {
+                position++;
+            }
+
+            long value = 0;
+            int digitsStart = position;
+            while (position < length && Character.isDigit(line.charAt(position))) {
+                value = value * 10 + (line.charAt(position) - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": number too large");
+                }
+                position++;
+            }
+            if (position == digitsStart || (position < length && !isSeparator(line.charAt(position)))) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": invalid number");
+            }
+            parsed[field] = (int) (negative ? -value : value);
+        }
+
+        position = skipSpaces(line, position);
+        if (position < length && line.charAt(position) != '#') {
+            throw new IllegalArgumentException("Line " + lineNumber + ": expected " + fields + " numbers after '" + operation + "'");
+        }
+        if (operation == 'W' && (parsed[2] < Byte.MIN_VALUE || parsed[2] > 0xFF)) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": value " + parsed[2] + " does not fit in a byte");
+        }
+
+        this.operations[slot] = (byte) operation;
+        this.pids[slot] = parsed[0];
+        this.arguments[slot] = parsed[1];
+        this.values[slot] = parsed[2];
+        this.protections[slot] = parsed[3];
+        return true;
+    }
+
+    // What may follow a number: more fields or a trailing comment
+    private static boolean isSeparator(char c) {
+        return Character.isWhitespace(c) || c == '#';
+    }
+
+    private static int skipSpaces(String line, int position) {
+        while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private void execute(int count, ReplayResult result) {
+        for (int i = 0; i < count; i++) {
+            int pid = this.pids[i];
+            try {
+                switch (this.operations[i]) {
+                    case CREATE:
+                        this.memoryManager.createProcess(pid, this.arguments[i]);
+                        result.creates++;
+                        break;
+                    case READ:
+                        this.checksum += this.memoryManager.readByLogicalAddress(pid, this.arguments[i]);
+                        result.reads++;
+                        break;
+                    case WRITE:
+                        this.memoryManager.writeByLogicalAddress(pid, this.arguments[i], (byte) this.values[i]);
+                        result.writes++;
+                        break;
+                    case EXECUTE:
+                        this.checksum += this.memoryManager.fetchByLogicalAddress(pid, this.arguments[i]);
+                        result.executes++;
+                        break;
+                    case PROTECT:
+                        this.memoryManager.setProtection(pid, this.arguments[i], this.values[i], this.protections[i]);
+                        result.protects++;
+                        break;
+                    case TERMINATE:
+                        this.memoryManager.destroyProcess(pid);
+                        result.terminates++;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected operation " + this.operations[i]);
+                }
+            } catch (ProtectionFaultException e) {
+                result.protectionFaults++;
+                result.failures++;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // Invalid PIDs, segmentation faults and out-of-memory are part of the workload
+                result.failures++;
+            }
+        }
+        result.events += count;
+    }
+
+    public static class ReplayResult {
+        long events;
+        long creates;
+        long reads;
+        long writes;
+        long executes;
+        long protects;
+        long terminates;
+        long failures;
+        long protectionFaults;
+        long elapsedNanos;
+        long pageFaults;
+        float freeMemoryPercentage;
+        long checksum;
+
+        public long getEvents() {
+            return this.events;
+        }
+
+        public long getCreates() {
+            return this.creates;
+        }
+
+        public long getReads() {
+            return this.reads;
+        }
+
+        public long getWrites() {
+            return this.writes;
+        }
+
+        public long getExecutes() {
+            return this.executes;
+        }
+
+        public long getProtects() {
+            return this.protects;
+        }
+
+        public long getTerminates() {
+            return this.terminates;
+        }
+
+        public long getFailures() {
+            return this.failures;
+        }
+
+        // Accesses denied by page protection, also counted in getFailures
+        public long getProtectionFaults() {
+            return this.protectionFaults;
+        }
+
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        public long getPageFaults() {
+            return this.pageFaults;
+        }
+
+        // Sum of the bytes read and fetched; equal for runs with the same process images
+        public long getChecksum() {
+            return this.checksum;
+        }
+
+        public float getFreeMemoryPercentage() {
+            return this.freeMemoryPercentage;
+        }
+
+        public double getEventsPerSecond() {
+            return (this.elapsedNanos == 0) ? 0 : this.events * 1e9 / this.elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Events: ").append(this.events)
+                    .append(" (create ").append(this.creates)
+                    .append(", read ").append(this.reads)
+                    .append(", write ").append(this.writes)
+                    .append(", execute ").append(this.executes)
+                    .append(", protect ").append(this.protects)
+                    .append(", terminate ").append(this.terminates)
+                    .append(", failed ").append(this.failures)
+                    .append(", protection faults ").append(this.protectionFaults).append(")\n");
+            sb.append(String.format("Elapsed: %.3f s, throughput: %.0f events/s\n", this.elapsedNanos / 1e9, this.getEventsPerSecond()));
+            sb.append("Page faults: ").append(this.pageFaults).append("\n");
+            sb.append(String.format("Final occupancy: %.2f%% used\n", 100 - this.freeMemoryPercentage));
+            return sb.toString();
+        }
+    }
+}
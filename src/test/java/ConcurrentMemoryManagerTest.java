@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentMemoryManagerTest {
+
+    @Test
+    void testBasicOperations() {
+        ConcurrentMemoryManager memoryManager = new ConcurrentMemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 10);
+
+        byte[] data = new byte[10];
+        memoryManager.read(1, 0, data, 0, 10);
+        assertEquals(data[5], memoryManager.readByLogicalAddress(1, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.createProcess(1, 4));
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.readByLogicalAddress(1, 10));
+
+        memoryManager.destroyProcess(1);
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.readByLogicalAddress(1, 0));
+    }
+
+    @Test
+    void testConcurrentChurnKeepsFramesConsistent() throws Exception {
+        ConcurrentMemoryManager memoryManager = new ConcurrentMemoryManager(1 << 16, 16, 1024);
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        AtomicInteger outOfMemory = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int firstPid = t * 1_000_000;
+            futures.add(executor.submit(() -> {
+                byte[] written = new byte[100];
+                byte[] readBack = new byte[100];
+                for (int i = 0; i < 2_000; i++) {
+                    int pid = firstPid + i;
+                    try {
+                        memoryManager.createProcess(pid, 100 + (i % 900));
+                    } catch (IllegalStateException e) {
+                        outOfMemory.incrementAndGet();
+                        continue;
+                    }
+
+                    for (int j = 0; j < written.length; j++) {
+                        written[j] = (byte) (pid + j);
+                    }
+                    memoryManager.write(pid, 0, written, 0, written.length);
+                    memoryManager.read(pid, 0, readBack, 0, readBack.length);
+                    assertArrayEquals(written, readBack, "Another process overwrote frames of PID " + pid);
+                    assertEquals(written[42], memoryManager.readByLogicalAddress(pid, 42));
+
+                    memoryManager.destroyProcess(pid);
+                }
+                return null;
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(0, outOfMemory.get());
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage(), "All frames must be back in the pool");
+    }
+}
@@ -0,0 +1,139 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugePageTest {
+
+    @Test
+    void testRunsAreAlignedAndCoalesce() {
+        ContiguousFrameAllocator allocator = new ContiguousFrameAllocator(16);
+
+        int single = allocator.allocate();
+        int run = allocator.allocateRun(2);
+        assertEquals(0, run % 4, "Runs are aligned to their size");
+        assertTrue(run > single || run + 4 <= single);
+        for (int frame = run; frame < run + 4; frame++) {
+            assertFalse(allocator.isFree(frame));
+        }
+        assertEquals(11, allocator.getFreeCount());
+        assertEquals(8, allocator.getLargestFreeRun());
+
+        allocator.freeRun(run, 2);
+        allocator.free(single);
+        assertEquals(16, allocator.getLargestFreeRun(), "Freed buddies merge back into one block");
+        assertEquals(16, allocator.getFreeCount());
+    }
+
+    @Test
+    void testFragmentationPreventsRuns() {
+        ContiguousFrameAllocator allocator = new ContiguousFrameAllocator(8);
+
+        // Take everything, then free every other frame: half the memory is free but no pair is
+        int[] frames = new int[8];
+        for (int i = 0; i < 8; i++) {
+            frames[i] = allocator.allocate();
+        }
+        for (int frame : frames) {
+            if (frame % 2 == 0) {
+                allocator.free(frame);
+            }
+        }
+
+        assertEquals(4, allocator.getFreeCount());
+        assertEquals(1, allocator.getLargestFreeRun());
+        assertEquals(FrameAllocator.NO_FRAME, allocator.allocateRun(1));
+        assertEquals(FrameAllocator.NO_FRAME, new ContiguousFrameAllocator(6).allocateRun(3), "Padding frames never count as free");
+    }
+
+    @Test
+    void testHugePagesExtendTlbReach() {
+        MemoryManager memoryManager = new MemoryManager(256, 4, 256);
+        memoryManager.enableHugePages(16);
+        memoryManager.setTlb(new Tlb(4, 4, Tlb.Replacement.LRU, Tlb.TaggingMode.PID_TAGGED));
+
+        // 40 pages: two huge pages plus 8 base pages
+        memoryManager.createProcess(1, 160);
+        assertEquals(2, memoryManager.getHugePagesGranted());
+        assertEquals(0, memoryManager.getHugePageFallbacks());
+
+        PageTable pageTable = memoryManager.getPageTable(1);
+        int base = pageTable.getFrameByPage(0);
+        assertEquals(0, base % 16);
+        for (int page = 0; page < 16; page++) {
+            assertTrue(pageTable.isHuge(page));
+            assertEquals(base + page, pageTable.getFrameByPage(page));
+        }
+        assertFalse(pageTable.isHuge(39));
+
+        byte[] buffer = new byte[128];
+        memoryManager.read(1, 0, buffer, 0, 128);
+        assertEquals(2, memoryManager.getTlbMisses(), "One TLB entry per huge page");
+        assertEquals(memoryManager.readByLogicalAddress(1, 77), buffer[77]);
+    }
+
+    @Test
+    void testFallbackToBasePagesWhenFragmented() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 64);
+        memoryManager.enableHugePages(4);
+
+        // Pin one frame in every aligned block of 4
+        for (int pid = 0; pid < 4; pid++) {
+            memoryManager.createProcess(pid, 12);
+            memoryManager.createProcess(100 + pid, 4);
+        }
+        for (int pid = 0; pid < 4; pid++) {
+            memoryManager.destroyProcess(pid);
+        }
+        assertEquals(75.0f, memoryManager.getFreeMemoryPercentage());
+
+        memoryManager.resetPagingStats();
+        memoryManager.createProcess(7, 16);
+        assertEquals(0, memoryManager.getHugePagesGranted());
+        assertEquals(1, memoryManager.getHugePageFallbacks());
+        assertFalse(memoryManager.getPageTable(7).isHuge(0));
+    }
+
+    @Test
+    void testCopyOnWriteSplitsHugePage() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 64);
+        memoryManager.enableHugePages(4);
+        memoryManager.setTlb(new Tlb(4, 4, Tlb.Replacement.LRU, Tlb.TaggingMode.PID_TAGGED));
+        memoryManager.createProcess(1, 16);
+        memoryManager.fork(1, 2);
+
+        byte[] parent = new byte[16];
+        memoryManager.read(1, 0, parent, 0, 16);
+        memoryManager.write(2, 5, new byte[] {0}, 0, 1);
+
+        PageTable childTable = memoryManager.getPageTable(2);
+        assertFalse(childTable.isHuge(0));
+        assertTrue(memoryManager.getPageTable(1).isHuge(0), "The parent keeps its huge page");
+
+        byte[] child = new byte[16];
+        memoryManager.read(2, 0, child, 0, 16);
+        assertEquals(0, child[5]);
+        child[5] = parent[5];
+        assertArrayEquals(parent, child);
+    }
+
+    @Test
+    void testCompactionKeepsHugePagesAligned() {
+        MemoryManager memoryManager = new MemoryManager(128, 4, 64);
+        memoryManager.enableHugePages(4);
+        memoryManager.createProcess(1, 4);
+        memoryManager.createProcess(2, 20); // one huge page and one base page
+        memoryManager.createProcess(3, 8);
+        memoryManager.destroyProcess(1);
+
+        byte[] before = new byte[20];
+        memoryManager.read(2, 0, before, 0, 20);
+        memoryManager.compact();
+
+        PageTable pageTable = memoryManager.getPageTable(2);
+        assertTrue(pageTable.isHuge(0));
+        assertEquals(0, pageTable.getFrameByPage(0) % 4);
+        byte[] after = new byte[20];
+        memoryManager.read(2, 0, after, 0, 20);
+        assertArrayEquals(before, after);
+    }
+}
@@ -1,4 +1,12 @@
 import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class MemoryManagerTest {
@@ -110,4 +118,710 @@ public class MemoryManagerTest {
         // 8 total - 3 occupied = 5 free. (5/8)*100 = 62.5%
         assertEquals(62.5f, memoryManager.getFreeMemoryPercentage(), "Size page+1 must occupy 2 frames");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTlbHitsAndMisses() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.setTlb(new Tlb(4, 2, Tlb.Replacement.LRU, Tlb.TaggingMode.PID_TAGGED));
+        memoryManager.createProcess(1, 16);
+
+        byte first = memoryManager.readByLogicalAddress(1, 5);
+        byte second = memoryManager.readByLogicalAddress(1, 6); // same page -> hit
+
+        assertEquals(first, memoryManager.readByLogicalAddress(1, 5));
+        assertNotEquals(0, second);
+        assertEquals(1, memoryManager.getTlbMisses());
+        assertEquals(2, memoryManager.getTlbHits());
+    }
+
+    @Test
+    void testTlbEvictsLeastRecentlyUsed() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        // Fully associative TLB with 2 entries
+        memoryManager.setTlb(new Tlb(2, 2, Tlb.Replacement.LRU, Tlb.TaggingMode.PID_TAGGED));
+        memoryManager.createProcess(1, 12);
+
+        memoryManager.readByLogicalAddress(1, 0); // page 0 miss
+        memoryManager.readByLogicalAddress(1, 4); // page 1 miss
+        memoryManager.readByLogicalAddress(1, 0); // page 0 hit
+        memoryManager.readByLogicalAddress(1, 8); // page 2 miss, evicts page 1
+        memoryManager.readByLogicalAddress(1, 0); // page 0 still cached
+
+        assertEquals(3, memoryManager.getTlbMisses());
+        assertEquals(2, memoryManager.getTlbHits());
+        assertEquals(1, memoryManager.getTlbEvictions());
+    }
+
+    @Test
+    void testTlbFlushOnContextSwitch() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        Tlb tlb = new Tlb(8, 8, Tlb.Replacement.LRU, Tlb.TaggingMode.FLUSH_ON_SWITCH);
+        memoryManager.setTlb(tlb);
+        memoryManager.createProcess(1, 8);
+        memoryManager.createProcess(2, 8);
+
+        memoryManager.readByLogicalAddress(1, 0);
+        memoryManager.readByLogicalAddress(2, 0); // switch -> flush
+        memoryManager.readByLogicalAddress(1, 0); // switch -> flush, miss again
+
+        assertEquals(3, memoryManager.getTlbMisses());
+        assertEquals(2, tlb.getFlushes());
+    }
+
+    @Test
+    void testPagesTablePackedFlags() {
+        PagesTable pagesTable = new PagesTable(3, new int[]{7, 2, 5});
+
+        assertEquals(2, pagesTable.getFrameByPage(1));
+        assertTrue(pagesTable.isValid(1));
+        assertFalse(pagesTable.isDirty(1));
+
+        pagesTable.setFlags(1, PagesTable.DIRTY | PagesTable.REFERENCED);
+        assertTrue(pagesTable.isDirty(1));
+        assertTrue(pagesTable.isReferenced(1));
+        assertEquals(2, pagesTable.getFrameByPage(1), "Flags must not change the frame number");
+
+        pagesTable.invalidate(1);
+        assertThrows(IllegalStateException.class, () -> pagesTable.getFrameByPage(1));
+        assertThrows(IllegalArgumentException.class, () -> pagesTable.getFrameByPage(3));
+    }
+
+    @Test
+    void testBulkReadMatchesSingleByteReads() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 10);
+        memoryManager.createProcess(2, 14);
+
+        byte[] data = new byte[14];
+        memoryManager.read(2, 0, data, 0, 14);
+
+        for (int address = 0; address < 14; address++) {
+            assertEquals(memoryManager.readByLogicalAddress(2, address), data[address]);
+        }
+    }
+
+    @Test
+    void testBulkWriteAcrossPages() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.setTlb(new Tlb(8, 8, Tlb.Replacement.LRU, Tlb.TaggingMode.PID_TAGGED));
+        memoryManager.createProcess(1, 16);
+
+        byte[] data = {-1, -2, -3, -4, -5, -6};
+        memoryManager.write(1, 3, data, 0, data.length); // touches pages 0, 1 and 2
+
+        byte[] readBack = new byte[8];
+        memoryManager.read(1, 2, readBack, 1, 6);
+        assertArrayEquals(new byte[]{0, memoryManager.readByLogicalAddress(1, 2), -1, -2, -3, -4, -5, 0}, readBack);
+
+        // One translation per page: write 3 misses, read 3 hits, single-byte read 1 hit
+        assertEquals(3, memoryManager.getTlbMisses());
+    }
+
+    @Test
+    void testBulkReadOutOfBounds() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 10);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            memoryManager.read(1, 8, new byte[4], 0, 4);
+        });
+
+        assertTrue(exception.getMessage().contains("out of bounds"));
+    }
+
+    @Test
+    void testDestroyProcessReleasesFrames() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 16);
+
+        memoryManager.createProcess(1, 8);
+        memoryManager.createProcess(2, 8);
+        assertEquals(0.0f, memoryManager.getFreeMemoryPercentage());
+
+        memoryManager.destroyProcess(1);
+        assertEquals(50.0f, memoryManager.getFreeMemoryPercentage());
+        assertNull(memoryManager.getProcessSize(1));
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.readByLogicalAddress(1, 0));
+
+        // Released frames can be reused, and the PID too
+        assertDoesNotThrow(() -> memoryManager.createProcess(1, 8));
+        assertEquals(0.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testDestroyUnknownProcess() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 16);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            memoryManager.destroyProcess(7);
+        });
+
+        assertTrue(exception.getMessage().contains("not found"));
+    }
+
+    @Test
+    void testLongRunningCreateDestroyDoesNotLeak() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+
+        for (int pid = 0; pid < 10_000; pid++) {
+            memoryManager.createProcess(pid, 32);
+            memoryManager.createProcess(pid + 1_000_000, 17);
+            memoryManager.destroyProcess(pid);
+            memoryManager.destroyProcess(pid + 1_000_000);
+        }
+
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testDemandPagingLoadsOnFirstAccess() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 32);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+
+        // 32 bytes = 8 pages on a 4-frame memory: only possible with demand paging
+        memoryManager.createProcess(1, 32);
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+
+        byte first = memoryManager.readByLogicalAddress(1, 0);
+        assertEquals(1, memoryManager.getPageFaults());
+        assertEquals(first, memoryManager.readByLogicalAddress(1, 0));
+        memoryManager.readByLogicalAddress(1, 3);
+        assertEquals(1, memoryManager.getPageFaults(), "Same page must not fault again");
+        assertEquals(75.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testDemandPagingEvictsAndRestoresData() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 32);
+        memoryManager.enableDemandPaging(new LruPolicy());
+        memoryManager.createProcess(1, 32);
+
+        byte[] original = new byte[32];
+        memoryManager.read(1, 0, original, 0, 32); // 8 faults, 4 evictions
+        assertEquals(8, memoryManager.getPageFaults());
+        assertEquals(4, memoryManager.getPageEvictions());
+
+        // Dirty pages are written to swap on eviction and read back on the next fault
+        byte[] written = {11, 22, 33, 44, 55, 66, 77, 88};
+        memoryManager.write(1, 0, written, 0, written.length);
+        byte[] rest = new byte[24];
+        memoryManager.read(1, 8, rest, 0, 24);
+        assertTrue(memoryManager.getSwapOuts() >= 2);
+
+        byte[] readBack = new byte[32];
+        memoryManager.read(1, 0, readBack, 0, 32);
+        System.arraycopy(written, 0, original, 0, written.length);
+        assertArrayEquals(original, readBack);
+        assertTrue(memoryManager.getSwapIns() >= 2);
+    }
+
+    @Test
+    void testDemandPagingMustBeEnabledBeforeProcesses() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 32);
+        memoryManager.createProcess(1, 8);
+
+        assertThrows(IllegalStateException.class, () -> memoryManager.enableDemandPaging(new ClockPolicy()));
+    }
+
+    @Test
+    void testDestroyProcessReleasesSwap() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 32);
+        memoryManager.enableDemandPaging(new ClockPolicy());
+        memoryManager.createProcess(1, 32);
+        memoryManager.write(1, 0, new byte[32], 0, 32);
+
+        memoryManager.destroyProcess(1);
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testSwapSlotsFitThePageTableFrameField() {
+        SwapSpace swapSpace = new SwapSpace(1); // tiny pages: the byte[] limit is far away
+        byte[] page = new byte[1];
+        for (int slot = 0; slot <= PageTable.FRAME_MASK; slot++) {
+            assertEquals(slot, swapSpace.restoreSlot(page, 1));
+        }
+
+        assertThrows(IllegalStateException.class, () -> swapSpace.restoreSlot(page, 1));
+        assertEquals(PageTable.FRAME_MASK + 1, swapSpace.getSlotsInUse());
+        swapSpace.release(7);
+        assertEquals(7, swapSpace.restoreSlot(page, 1), "Recycled slots are still available");
+    }
+
+    @Test
+    void testStreamingReportMatchesListReport() throws Exception {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 10);
+        memoryManager.createProcess(2, 5);
+
+        StringBuilder streamed = new StringBuilder();
+        memoryManager.writeMemoryReport(streamed);
+        assertEquals(String.join("\n", memoryManager.getMemoryReport()) + "\n", streamed.toString());
+
+        StringBuilder range = new StringBuilder();
+        memoryManager.writeMemoryReport(range, 3, 5);
+        assertEquals(memoryManager.getMemoryReport().get(3) + "\n" + memoryManager.getMemoryReport().get(4) + "\n", range.toString());
+        assertTrue(range.toString().startsWith("Frame 3: [PROCESS 2] -> ["));
+
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.writeMemoryReport(new StringBuilder(), 10, 17));
+    }
+
+    @Test
+    void testReportSummaryCollapsesRuns() throws Exception {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 10); // frames 0-2
+        memoryManager.createProcess(2, 5);  // frames 3-4
+
+        StringBuilder summary = new StringBuilder();
+        memoryManager.writeMemoryReportSummary(summary);
+
+        assertEquals(String.join("\n",
+                "Frames 0-2: [PROCESS 1] (3 frames)",
+                "Frames 3-4: [PROCESS 2] (2 frames)",
+                "Frames 5-15: [FREE] (11 frames)",
+                "PID 1: 10 bytes, 3/3 pages resident",
+                "PID 2: 5 bytes, 2/2 pages resident",
+                "Free frames: 11 of 16",
+                ""), summary.toString());
+    }
+
+    @Test
+    void testSeedReproducesProcessContent() {
+        MemoryManager first = new MemoryManager(64, 4, 32);
+        MemoryManager second = new MemoryManager(128, 4, 32);
+        first.setSeed(42);
+        second.setSeed(42);
+
+        second.createProcess(9, 4); // different frame layout must not matter
+        first.createProcess(1, 30);
+        second.createProcess(1, 30);
+
+        byte[] firstData = new byte[30];
+        byte[] secondData = new byte[30];
+        first.read(1, 0, firstData, 0, 30);
+        second.read(1, 0, secondData, 0, 30);
+        assertArrayEquals(firstData, secondData);
+
+        for (byte data : firstData) {
+            assertTrue(data >= 1 && data <= 100, "Process content avoids 0");
+        }
+    }
+
+    @Test
+    void testLogicalMemoryGeneratesConsistentBytes() {
+        LogicalMemory logicalMemory = new LogicalMemory(1, 1000, 16, 7);
+
+        byte[] bulk = new byte[997];
+        logicalMemory.read(3, bulk, 0, 997);
+        for (int address = 3; address < 1000; address++) {
+            assertEquals(logicalMemory.readByte(address), bulk[address - 3]);
+        }
+        assertEquals(new LogicalMemory(1, 1000, 16, 7).readByte(500), logicalMemory.readByte(500));
+    }
+
+    @Test
+    void testForkSharesFramesUntilWrite() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 16);
+
+        memoryManager.fork(1, 2);
+        assertEquals(75.0f, memoryManager.getFreeMemoryPercentage(), "Fork copies no frames");
+        assertEquals(4, memoryManager.getSharedFrames());
+        assertEquals(memoryManager.readByLogicalAddress(1, 5), memoryManager.readByLogicalAddress(2, 5));
+
+        byte before = memoryManager.readByLogicalAddress(1, 5);
+        memoryManager.write(2, 5, new byte[] {(byte) 200}, 0, 1);
+        assertEquals(1, memoryManager.getCopyOnWriteFaults());
+        assertEquals(3, memoryManager.getSharedFrames(), "Only the written page is copied");
+        assertEquals(68.75f, memoryManager.getFreeMemoryPercentage());
+        assertEquals((byte) 200, memoryManager.readByLogicalAddress(2, 5));
+        assertEquals(before, memoryManager.readByLogicalAddress(1, 5));
+
+        // The rest of the copied page still matches the parent
+        assertEquals(memoryManager.readByLogicalAddress(1, 4), memoryManager.readByLogicalAddress(2, 4));
+    }
+
+    @Test
+    void testDestroyForkedProcessKeepsSharedFrames() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 16);
+        byte[] original = new byte[16];
+        memoryManager.read(1, 0, original, 0, 16);
+
+        memoryManager.fork(1, 2);
+        memoryManager.destroyProcess(1);
+        assertEquals(75.0f, memoryManager.getFreeMemoryPercentage());
+        assertEquals(0, memoryManager.getSharedFrames());
+
+        byte[] child = new byte[16];
+        memoryManager.read(2, 0, child, 0, 16);
+        assertArrayEquals(original, child);
+
+        // Sole owner again: writing no longer copies
+        memoryManager.write(2, 0, new byte[] {1}, 0, 1);
+        assertEquals(0, memoryManager.getCopyOnWriteFaults());
+
+        memoryManager.destroyProcess(2);
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.fork(1, 3));
+    }
+
+    @Test
+    void testCopyOnWriteNeverEvictsTheFrameBeingCopied() {
+        MemoryManager memoryManager = new MemoryManager(8, 4, 8);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+        memoryManager.createProcess(1, 8);
+        memoryManager.write(1, 0, new byte[] {11}, 0, 1);
+        memoryManager.write(1, 4, new byte[] {22}, 0, 1);
+
+        // Both frames are shared, and FIFO's oldest is the one page 0 of process 2 must copy
+        memoryManager.fork(1, 2);
+        memoryManager.write(2, 1, new byte[] {33}, 0, 1);
+        assertEquals(11, memoryManager.readByLogicalAddress(2, 0));
+        assertEquals(33, memoryManager.readByLogicalAddress(2, 1));
+        assertEquals(11, memoryManager.readByLogicalAddress(1, 0));
+        assertEquals(22, memoryManager.readByLogicalAddress(1, 4));
+
+        memoryManager.destroyProcess(1);
+        memoryManager.destroyProcess(2);
+        assertEquals(0, memoryManager.getSwapSlotsInUse());
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testForkAndDeduplicationAreRejectedUnderOptimal() {
+        MemoryManager memoryManager = new MemoryManager(8, 4, 8);
+        memoryManager.enableDemandPaging(new OptimalPolicy(new long[]{OptimalPolicy.key(1, 0), OptimalPolicy.key(2, 0)}));
+        memoryManager.createProcess(1, 4);
+        memoryManager.readByLogicalAddress(1, 0);
+
+        assertThrows(IllegalStateException.class, () -> memoryManager.fork(1, 2));
+        assertThrows(IllegalStateException.class, () -> memoryManager.deduplicate(0, 2));
+        assertEquals(0, memoryManager.getForks());
+    }
+
+    @Test
+    void testForkWithDemandPagingSharesSwapSlots() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 32);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+        memoryManager.createProcess(1, 32);
+
+        // Dirty every page so that evictions go through swap
+        for (int page = 0; page < 8; page++) {
+            memoryManager.write(1, page * 4, new byte[] {(byte) (page + 101)}, 0, 1);
+        }
+
+        memoryManager.fork(1, 2);
+        memoryManager.write(1, 0, new byte[] {0}, 0, 1);
+        for (int page = 0; page < 8; page++) {
+            assertEquals((byte) (page + 101), memoryManager.readByLogicalAddress(2, page * 4));
+        }
+        assertEquals(0, memoryManager.readByLogicalAddress(1, 0));
+
+        memoryManager.destroyProcess(1);
+        memoryManager.destroyProcess(2);
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testDeduplicateMergesIdenticalPages() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 16);
+        memoryManager.createProcess(2, 16);
+
+        byte[] zeros = new byte[8];
+        memoryManager.write(1, 0, zeros, 0, 8);
+        memoryManager.write(2, 4, zeros, 0, 4);
+        byte[] before = new byte[16];
+        memoryManager.read(2, 0, before, 0, 16);
+
+        assertEquals(2, memoryManager.deduplicate(0, 16));
+        assertEquals(62.5f, memoryManager.getFreeMemoryPercentage());
+        assertEquals(1, memoryManager.getSharedFrames());
+        assertEquals(memoryManager.getPageTable(1).getFrameByPage(0), memoryManager.getPageTable(2).getFrameByPage(1));
+        assertEquals(0, memoryManager.deduplicate(0, 16), "Already merged");
+
+        // Merged pages are copy-on-write
+        memoryManager.write(1, 1, new byte[] {9}, 0, 1);
+        assertEquals(9, memoryManager.readByLogicalAddress(1, 1));
+        assertEquals(0, memoryManager.readByLogicalAddress(1, 5));
+        byte[] after = new byte[16];
+        memoryManager.read(2, 0, after, 0, 16);
+        assertArrayEquals(before, after);
+
+        memoryManager.destroyProcess(1);
+        memoryManager.destroyProcess(2);
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testDeduplicateStepCoversMemoryIncrementally() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        for (int pid = 1; pid <= 4; pid++) {
+            memoryManager.createProcess(pid, 4);
+            memoryManager.write(pid, 0, new byte[] {1, 2, 3, 4}, 0, 4);
+        }
+
+        int saved = 0;
+        for (int step = 0; step < 8; step++) {
+            saved += memoryManager.deduplicateStep(2);
+        }
+        assertEquals(3, saved);
+        assertEquals(3, memoryManager.getDedupFramesSaved());
+        assertEquals(4, memoryManager.getFrameReferenceCount(memoryManager.getPageTable(4).getFrameByPage(0)));
+    }
+
+    @Test
+    void testCreateProcessesMatchesSequentialCreation() {
+        MemoryManager batch = new MemoryManager(4096, 16, 256);
+        MemoryManager sequential = new MemoryManager(4096, 16, 256);
+        batch.setSeed(11);
+        sequential.setSeed(11);
+
+        List<MemoryManager.ProcessSpec> specs = new ArrayList<>();
+        for (int pid = 0; pid < 30; pid++) {
+            specs.add(new MemoryManager.ProcessSpec(pid, 1 + pid * 5));
+            sequential.createProcess(pid, 1 + pid * 5);
+        }
+        batch.createProcesses(specs);
+
+        assertEquals(sequential.getFreeMemoryPercentage(), batch.getFreeMemoryPercentage());
+        assertEquals(sequential.getMemoryReport(), batch.getMemoryReport());
+    }
+
+    @Test
+    void testCreateProcessesIsAllOrNothing() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 8);
+
+        // 16 frames: 2 used, the batch needs 8 + 8 = 16
+        List<MemoryManager.ProcessSpec> tooBig = List.of(
+                new MemoryManager.ProcessSpec(2, 32), new MemoryManager.ProcessSpec(3, 32));
+        assertThrows(IllegalStateException.class, () -> memoryManager.createProcesses(tooBig));
+
+        List<MemoryManager.ProcessSpec> duplicate = List.of(
+                new MemoryManager.ProcessSpec(4, 4), new MemoryManager.ProcessSpec(4, 4));
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.createProcesses(duplicate));
+
+        List<MemoryManager.ProcessSpec> existing = List.of(
+                new MemoryManager.ProcessSpec(5, 4), new MemoryManager.ProcessSpec(1, 4));
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.createProcesses(existing));
+
+        assertEquals(87.5f, memoryManager.getFreeMemoryPercentage(), "Failed batches allocate nothing");
+        assertNull(memoryManager.getProcessSize(2));
+        assertNull(memoryManager.getProcessSize(5));
+
+        memoryManager.createProcesses(List.of(new MemoryManager.ProcessSpec(2, 32), new MemoryManager.ProcessSpec(3, 24)));
+        assertEquals(0.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testCreateProcessesRollsBackWhenTheCopyFails() {
+        boolean[] failWrites = {false};
+        MemoryBackend backend = new HeapMemoryBackend(64) {
+            @Override
+            public void write(long address, byte[] src, int srcOffset, int length) {
+                if (failWrites[0]) {
+                    throw new UncheckedIOException(new IOException("Disk full"));
+                }
+                super.write(address, src, srcOffset, length);
+            }
+        };
+        MemoryManager memoryManager = new MemoryManager(new PhysicalMemory(backend, 4), 32);
+
+        failWrites[0] = true;
+        List<MemoryManager.ProcessSpec> batch = List.of(
+                new MemoryManager.ProcessSpec(1, 16), new MemoryManager.ProcessSpec(2, 16));
+        assertThrows(UncheckedIOException.class, () -> memoryManager.createProcesses(batch));
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage(), "The frames of the batch are freed");
+        assertNull(memoryManager.getProcessSize(1));
+
+        failWrites[0] = false;
+        memoryManager.createProcesses(batch);
+        assertEquals(50.0f, memoryManager.getFreeMemoryPercentage());
+    }
+
+    private static byte[] readAll(MemoryManager memoryManager, int pid) {
+        byte[] data = new byte[memoryManager.getProcessSize(pid)];
+        memoryManager.read(pid, 0, data, 0, data.length);
+        return data;
+    }
+
+    @Test
+    void testCompactMakesProcessesContiguous() {
+        MemoryManager memoryManager = new MemoryManager(256, 4, 64);
+        for (int pid = 1; pid <= 8; pid++) {
+            memoryManager.createProcess(pid, 16);
+        }
+        for (int pid = 1; pid <= 8; pid += 2) {
+            memoryManager.destroyProcess(pid);
+        }
+        memoryManager.createProcess(20, 64); // 16 pages spread over the holes and the tail
+        memoryManager.fork(4, 21);
+        memoryManager.write(20, 0, new byte[] {-5}, 0, 1);
+
+        Map<Integer, byte[]> before = new HashMap<>();
+        for (int pid : new int[] {2, 4, 6, 8, 20, 21}) {
+            before.put(pid, readAll(memoryManager, pid));
+        }
+
+        MemoryManager.CompactionResult result = memoryManager.compact();
+        assertTrue(result.getFramesMoved() > 0);
+        assertEquals(result.getFramesMoved() * 4L, result.getBytesMoved());
+
+        for (int pid : before.keySet()) {
+            assertArrayEquals(before.get(pid), readAll(memoryManager, pid), "Content of PID " + pid);
+        }
+
+        // PID order from frame 0: 2, 4 (shared with 21), 6, 8, 20
+        int expected = 0;
+        for (int pid : new int[] {2, 4, 6, 8, 20}) {
+            PageTable pageTable = memoryManager.getPageTable(pid);
+            for (int page = 0; page < pageTable.getNumberOfPages(); page++) {
+                assertEquals(expected++, pageTable.getFrameByPage(page));
+            }
+        }
+        assertEquals(memoryManager.getPageTable(4).getFrameByPage(2), memoryManager.getPageTable(21).getFrameByPage(2));
+
+        // Frame table, allocator and COW still agree with the new layout
+        List<String> report = memoryManager.getMemoryReport();
+        assertTrue(report.get(31).contains("PROCESS 20"));
+        assertTrue(report.get(32).contains("FREE"));
+        memoryManager.write(21, 0, new byte[] {1}, 0, 1);
+        assertEquals(before.get(4)[0], memoryManager.readByLogicalAddress(4, 0));
+        for (int pid : new int[] {2, 4, 6, 8, 20, 21}) {
+            memoryManager.destroyProcess(pid);
+        }
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage());
+        assertEquals(0, memoryManager.compact().getFramesMoved());
+    }
+
+    @Test
+    void testCompactWithDemandPagingKeepsPolicyState() {
+        MemoryManager memoryManager = new MemoryManager(32, 4, 32);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+        memoryManager.createProcess(1, 32);
+        memoryManager.createProcess(2, 32);
+        for (int page = 0; page < 8; page += 2) {
+            memoryManager.readByLogicalAddress(2, page * 4);
+            memoryManager.readByLogicalAddress(1, page * 4 + 1);
+        }
+        byte[] first = readAll(memoryManager, 1);
+        byte[] second = readAll(memoryManager, 2);
+
+        memoryManager.compact();
+        long faults = memoryManager.getPageFaults();
+        assertArrayEquals(first, readAll(memoryManager, 1));
+        assertArrayEquals(second, readAll(memoryManager, 2));
+        assertTrue(memoryManager.getPageFaults() > faults, "Eviction keeps working on the relocated frames");
+    }
+
+    @Test
+    void testWorkingSetFollowsReferencedPages() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.setTlb(new Tlb(4, 2, Tlb.Replacement.LRU, Tlb.TaggingMode.PID_TAGGED));
+        memoryManager.createProcess(1, 16);
+        memoryManager.createProcess(2, 16);
+        assertEquals(0, memoryManager.getWorkingSet(1).getPages(), "No working set before the first sweep");
+
+        memoryManager.readByLogicalAddress(1, 0);
+        memoryManager.readByLogicalAddress(1, 4);
+        memoryManager.write(1, 8, new byte[]{42}, 0, 1);
+        memoryManager.agingSweep();
+        assertEquals(3, memoryManager.getWorkingSet(1).getPages());
+        assertEquals(1, memoryManager.getWorkingSet(1).getDirtyPages());
+        assertEquals(0, memoryManager.getWorkingSet(2).getPages());
+        assertFalse(memoryManager.getPageTable(1).isReferenced(0), "The sweep clears the referenced bits");
+
+        // Page 0 is still cached in the TLB, the sweep must have dropped it for the bit to be set again
+        memoryManager.readByLogicalAddress(1, 1);
+        memoryManager.agingSweep();
+        assertEquals(3, memoryManager.getWorkingSet(1).getPages());
+
+        memoryManager.setWorkingSetWindow(1);
+        assertEquals(1, memoryManager.getWorkingSet(1).getPages(), "Only page 0 was referenced in the last sweep");
+        assertEquals(4, memoryManager.getWorkingSet(1).getBytes());
+
+        memoryManager.destroyProcess(1);
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.getWorkingSet(1));
+    }
+
+    @Test
+    void testAgingIntervalSweepsAutomatically() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 32);
+        memoryManager.setAgingInterval(4);
+        memoryManager.setWorkingSetWindow(2);
+
+        for (int page = 0; page < 8; page++) {
+            memoryManager.readByLogicalAddress(1, page * 4);
+        }
+        // The 8th translation triggers the second sweep before its page is referenced
+        assertEquals(2, memoryManager.getAgingSweeps());
+        assertEquals(7, memoryManager.getWorkingSet(1).getPages());
+
+        for (int i = 0; i < 12; i++) {
+            memoryManager.readByLogicalAddress(1, 0);
+        }
+        assertEquals(5, memoryManager.getAgingSweeps());
+        assertEquals(1, memoryManager.getWorkingSet(1).getPages(), "Older references fell out of the window");
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.setWorkingSetWindow(33));
+    }
+
+    @Test
+    void testWriteByLogicalAddress() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 16);
+        memoryManager.fork(1, 2);
+
+        memoryManager.writeByLogicalAddress(2, 5, (byte) -3);
+        assertEquals(-3, memoryManager.readByLogicalAddress(2, 5));
+        assertNotEquals(-3, memoryManager.readByLogicalAddress(1, 5), "The write copies the shared page first");
+        assertTrue(memoryManager.getPageTable(2).isDirty(1));
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.writeByLogicalAddress(1, 16, (byte) 1));
+    }
+
+    @Test
+    void testProtectionFaults() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.setTlb(new Tlb(4, 2, Tlb.Replacement.LRU, Tlb.TaggingMode.PID_TAGGED));
+        memoryManager.createProcess(1, 16);
+        memoryManager.writeByLogicalAddress(1, 4, (byte) 9); // page 1 now cached in the TLB
+
+        memoryManager.setProtection(1, 4, 8, PageTable.PROT_READ | PageTable.PROT_EXEC);
+        assertEquals(PageTable.PROT_READ | PageTable.PROT_EXEC, memoryManager.getProtection(1, 1));
+        assertEquals(PageTable.PROT_ALL, memoryManager.getProtection(1, 0));
+
+        ProtectionFaultException fault = assertThrows(ProtectionFaultException.class,
+                () -> memoryManager.writeByLogicalAddress(1, 4, (byte) 1));
+        assertEquals(1, fault.getPage());
+        assertEquals(PageTable.PROT_WRITE, fault.getAccess());
+        assertThrows(ProtectionFaultException.class, () -> memoryManager.write(1, 0, new byte[8], 0, 8));
+        assertEquals(9, memoryManager.fetchByLogicalAddress(1, 4));
+
+        memoryManager.setProtection(1, 12, 1, PageTable.PROT_NONE);
+        memoryManager.readByLogicalAddress(1, 11);
+        assertThrows(ProtectionFaultException.class, () -> memoryManager.readByLogicalAddress(1, 12));
+        memoryManager.setProtection(1, 0, 4, PageTable.PROT_READ);
+        memoryManager.readByLogicalAddress(1, 0);
+        assertThrows(ProtectionFaultException.class, () -> memoryManager.fetchByLogicalAddress(1, 0));
+        assertEquals(4, memoryManager.getProtectionFaults());
+        assertThrows(IllegalArgumentException.class, () -> memoryManager.setProtection(1, 0, 4, 8));
+    }
+
+    @Test
+    void testProtectionSurvivesEviction() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 32);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+        memoryManager.createProcess(1, 32);
+        memoryManager.setProtection(1, 0, 4, PageTable.PROT_READ);
+        memoryManager.readByLogicalAddress(1, 0);
+
+        for (int page = 1; page < 8; page++) {
+            memoryManager.writeByLogicalAddress(1, page * 4, (byte) page);
+        }
+        assertFalse(memoryManager.getPageTable(1).isValid(0), "Page 0 was evicted");
+        assertThrows(ProtectionFaultException.class, () -> memoryManager.writeByLogicalAddress(1, 0, (byte) 1));
+        assertEquals(PageTable.PROT_READ, memoryManager.getProtection(1, 0));
+        memoryManager.readByLogicalAddress(1, 0);
+    }
+}
@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryMetricsTest {
+
+    @Test
+    void testSnapshotCountsHotPaths() throws Exception {
+        MemoryManager memoryManager = new MemoryManager(32, 4, 32);
+        memoryManager.createProcess(1, 10); // 3 pages, 2 unused bytes
+        memoryManager.createProcess(2, 16);
+        assertThrows(IllegalStateException.class, () -> memoryManager.createProcess(3, 32));
+
+        byte[] buffer = new byte[10];
+        memoryManager.read(1, 0, buffer, 0, 10);
+        memoryManager.readByLogicalAddress(2, 3);
+        memoryManager.writeMemoryReportSummary(new StringWriter());
+        memoryManager.destroyProcess(2);
+
+        MemoryMetrics.Snapshot snapshot = memoryManager.getMetricsSnapshot();
+        assertEquals(4, snapshot.getTranslations());
+        assertEquals(7, snapshot.getFrameAllocations());
+        assertEquals(1, snapshot.getFailedAllocations());
+        assertEquals(4, snapshot.getFramesFreed());
+        assertEquals(2, snapshot.getProcessesCreated());
+        assertEquals(1, snapshot.getProcessesDestroyed());
+        assertEquals(2, snapshot.getInternalFragmentationBytes());
+        assertEquals(2, snapshot.getFragmentationByProcess().get(1));
+        assertEquals(5, snapshot.getFreeFrames());
+        assertEquals(2, snapshot.getCreateProcessLatency().getCount());
+        assertEquals(1, snapshot.getReportLatency().getCount());
+
+        memoryManager.resetMetrics();
+        assertEquals(0, memoryManager.getMetricsSnapshot().getTranslations());
+        assertEquals(2, memoryManager.getMetricsSnapshot().getInternalFragmentationBytes(), "Live process state survives a reset");
+    }
+
+    @Test
+    void testFailedCopyOnWriteIsNotCountedAsAllocation() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 16);
+        memoryManager.createProcess(1, 16); // every frame in use
+        memoryManager.fork(1, 2);
+        memoryManager.resetMetrics();
+
+        assertThrows(IllegalStateException.class, () -> memoryManager.writeByLogicalAddress(2, 0, (byte) 1));
+        MemoryMetrics.Snapshot snapshot = memoryManager.getMetricsSnapshot();
+        assertEquals(0, snapshot.getFrameAllocations());
+        assertEquals(1, snapshot.getFailedAllocations());
+    }
+
+    @Test
+    void testPageFaultLatencyHistogram() {
+        MemoryManager memoryManager = new MemoryManager(16, 4, 32);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+        memoryManager.createProcess(1, 32);
+
+        byte[] buffer = new byte[32];
+        memoryManager.read(1, 0, buffer, 0, 32);
+
+        MemoryMetrics.HistogramSnapshot faults = memoryManager.getMetricsSnapshot().getPageFaultLatency();
+        assertEquals(8, faults.getCount());
+        assertEquals(memoryManager.getPageFaultNanos(), faults.getTotalNanos());
+        assertTrue(faults.getPercentileNanos(50) <= faults.getPercentileNanos(99));
+    }
+
+    @Test
+    void testHistogramBuckets() {
+        MemoryMetrics.Histogram histogram = new MemoryMetrics.Histogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100); // bucket [64, 128)
+        }
+        histogram.record(5000); // bucket [4096, 8192)
+
+        MemoryMetrics.HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(127, snapshot.getPercentileNanos(50));
+        assertEquals(127, snapshot.getPercentileNanos(99));
+        assertEquals(8191, snapshot.getPercentileNanos(100));
+        assertEquals(149.0, snapshot.getMeanNanos());
+    }
+
+    @Test
+    void testMetricsMBean() throws Exception {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        ObjectName name = memoryManager.registerMetricsMBean("pagination:type=MemoryManager,name=test");
+        try {
+            memoryManager.createProcess(1, 16);
+            assertEquals(12, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "FreeFrames"));
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ProcessesCreated"));
+        } finally {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        }
+    }
+}
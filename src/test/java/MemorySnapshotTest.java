@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemorySnapshotTest {
+
+    @Test
+    void testRoundTripRestoresFramesAndTables(@TempDir Path directory) throws IOException {
+        MemoryManager original = new MemoryManager(4096, 16, 256);
+        original.createProcess(1, 100);
+        original.createProcess(2, 40);
+        original.write(1, 10, new byte[] {42, 43}, 0, 2);
+        original.fork(2, 3);
+        original.write(3, 0, new byte[] {7}, 0, 1);
+
+        Path file = directory.resolve("memory.snapshot");
+        original.saveSnapshot(file);
+        assertTrue(Files.size(file) < 4096, "Free frames are not written");
+
+        MemoryManager restored = MemoryManager.fromSnapshot(file);
+        StringWriter expected = new StringWriter();
+        StringWriter actual = new StringWriter();
+        original.writeMemoryReport(expected);
+        restored.writeMemoryReport(actual);
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(original.getFreeMemoryPercentage(), restored.getFreeMemoryPercentage());
+        assertEquals(original.getSharedFrames(), restored.getSharedFrames());
+        assertEquals(original.getProcessPageTableInfo(3), restored.getProcessPageTableInfo(3));
+        assertEquals(42, restored.readByLogicalAddress(1, 10));
+        assertEquals(7, restored.readByLogicalAddress(3, 0));
+
+        // The restored state keeps working: copy-on-write and destroy
+        restored.write(2, 1, new byte[] {9}, 0, 1);
+        assertEquals(original.readByLogicalAddress(3, 1), restored.readByLogicalAddress(3, 1));
+        restored.destroyProcess(1);
+        restored.destroyProcess(2);
+        restored.destroyProcess(3);
+        assertEquals(100.0f, restored.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testRoundTripWithDemandPagingAndSwap(@TempDir Path directory) throws IOException {
+        MemoryManager original = new MemoryManager(16, 4, 32);
+        original.enableDemandPaging(new LruPolicy());
+        original.createProcess(1, 32);
+        for (int page = 0; page < 8; page++) {
+            original.write(1, page * 4, new byte[] {(byte) (page + 50)}, 0, 1);
+        }
+        original.fork(1, 2);
+
+        Path file = directory.resolve("paged.snapshot");
+        original.saveSnapshot(file);
+        MemoryManager restored = MemoryManager.fromSnapshot(file);
+
+        assertTrue(restored.isDemandPaging());
+        assertEquals("LRU", restored.getReplacementPolicy().getName());
+        for (int page = 0; page < 8; page++) {
+            assertEquals((byte) (page + 50), restored.readByLogicalAddress(2, page * 4));
+            assertEquals((byte) (page + 50), restored.readByLogicalAddress(1, page * 4));
+        }
+
+        restored.destroyProcess(1);
+        restored.destroyProcess(2);
+        assertEquals(100.0f, restored.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testRestoreRejectsMismatchedMemory(@TempDir Path directory) throws IOException {
+        MemoryManager original = new MemoryManager(64, 4, 32);
+        original.createProcess(1, 8);
+        Path file = directory.resolve("small.snapshot");
+        original.saveSnapshot(file);
+
+        assertThrows(IllegalArgumentException.class, () -> new MemoryManager(128, 4, 32).restoreSnapshot(file));
+
+        MemoryManager busy = new MemoryManager(64, 4, 32);
+        busy.createProcess(5, 4);
+        assertThrows(IllegalStateException.class, () -> busy.restoreSnapshot(file));
+
+        Path garbage = directory.resolve("garbage");
+        Files.write(garbage, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> MemoryManager.fromSnapshot(garbage));
+    }
+
+    @Test
+    void testSaveRejectsOptimalPolicy(@TempDir Path directory) {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.enableDemandPaging(new OptimalPolicy(new long[0]));
+        Path file = directory.resolve("optimal.snapshot");
+
+        assertThrows(IllegalStateException.class, () -> memoryManager.saveSnapshot(file));
+        assertFalse(Files.exists(file));
+    }
+}
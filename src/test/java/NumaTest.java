@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NumaTest {
+
+    @Test
+    void testAllocatorSpillPolicies() {
+        NumaFrameAllocator allocator = new NumaFrameAllocator(10, 3); // nodes of 3, 3 and 4 frames
+        assertEquals(2, allocator.getNode(9));
+        assertEquals(4, allocator.getNumberOfFrames(2));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, allocator.getNode(allocator.allocateOnNode(0)));
+        }
+        assertEquals(1, allocator.getNode(allocator.allocateOnNode(0)), "NEXT_NODE spills to node 1");
+
+        allocator.setSpillPolicy(NumaFrameAllocator.SpillPolicy.MOST_FREE);
+        assertEquals(2, allocator.getNode(allocator.allocateOnNode(0)), "Node 2 has the most free frames");
+
+        allocator.setSpillPolicy(NumaFrameAllocator.SpillPolicy.STRICT);
+        assertEquals(FrameAllocator.NO_FRAME, allocator.allocateOnNode(0));
+        assertEquals(0, allocator.getAvailableCount(0));
+        assertEquals(5, allocator.getFreeCount());
+
+        allocator.free(1);
+        assertEquals(1, allocator.allocateOnNode(0));
+        assertFalse(allocator.isFree(1));
+        assertThrows(IllegalArgumentException.class, () -> allocator.allocateOnNode(3));
+    }
+
+    @Test
+    void testProcessesAllocateOnTheirHomeNode() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 16);
+        memoryManager.enableNuma(2, NumaFrameAllocator.SpillPolicy.NEXT_NODE);
+        memoryManager.createProcess(1, 16);
+        memoryManager.createProcess(2, 16);
+        memoryManager.createProcess(3, 8, 1);
+
+        assertEquals(0, memoryManager.getNumaStats(1).getHomeNode());
+        assertEquals(1, memoryManager.getNumaStats(2).getHomeNode(), "Default placement is round-robin");
+        for (int pid = 1; pid <= 3; pid++) {
+            PageTable pagesTable = memoryManager.getPageTable(pid);
+            for (int page = 0; page < pagesTable.getNumberOfPages(); page++) {
+                assertEquals(memoryManager.getNumaStats(pid).getHomeNode(), memoryManager.getNodeOfFrame(pagesTable.getFrameByPage(page)));
+            }
+            memoryManager.readByLogicalAddress(pid, 0);
+            assertEquals(1.0, memoryManager.getNumaStats(pid).getLocalRatio());
+        }
+        assertEquals(0, memoryManager.getRemotePenaltyNanos());
+    }
+
+    @Test
+    void testRoundRobinIgnoresExplicitPlacementAndForks() {
+        MemoryManager memoryManager = new MemoryManager(96, 4, 16);
+        memoryManager.enableNuma(3, NumaFrameAllocator.SpillPolicy.NEXT_NODE);
+        memoryManager.createProcess(1, 4);    // round-robin: node 0
+        memoryManager.createProcess(2, 4, 0); // explicit
+        memoryManager.fork(2, 3);             // inherits node 0
+        memoryManager.createProcess(4, 4);
+        memoryManager.createProcesses(List.of(new MemoryManager.ProcessSpec(5, 4), new MemoryManager.ProcessSpec(6, 4)));
+
+        assertEquals(1, memoryManager.getNumaStats(4).getHomeNode());
+        assertEquals(2, memoryManager.getNumaStats(5).getHomeNode());
+        assertEquals(0, memoryManager.getNumaStats(6).getHomeNode());
+        memoryManager.createProcess(7, 4);
+        assertEquals(1, memoryManager.getNumaStats(7).getHomeNode());
+    }
+
+    @Test
+    void testSpilledPagesAreRemote() {
+        MemoryManager memoryManager = new MemoryManager(32, 4, 32);
+        memoryManager.enableNuma(2, NumaFrameAllocator.SpillPolicy.NEXT_NODE);
+        memoryManager.setRemoteAccessPenaltyNanos(100);
+        memoryManager.createProcess(1, 24, 0); // 4 pages on node 0, 2 spill to node 1
+
+        for (int address = 0; address < 24; address += 4) {
+            memoryManager.readByLogicalAddress(1, address);
+        }
+        MemoryManager.NumaStats stats = memoryManager.getNumaStats(1);
+        assertEquals(4, stats.getLocalAccesses());
+        assertEquals(2, stats.getRemoteAccesses());
+        assertEquals(200, memoryManager.getRemotePenaltyNanos());
+        assertTrue(stats.toString().contains("66.7% local"), stats.toString());
+    }
+
+    @Test
+    void testStrictPolicyRejectsProcessesThatDoNotFitTheirNode() {
+        MemoryManager memoryManager = new MemoryManager(32, 4, 32);
+        memoryManager.enableNuma(2, NumaFrameAllocator.SpillPolicy.STRICT);
+
+        assertThrows(IllegalStateException.class, () -> memoryManager.createProcess(1, 24, 0));
+        assertEquals(100.0f, memoryManager.getFreeMemoryPercentage(), "Nothing is allocated by a rejected process");
+
+        // Round-robin homes 0, 1, 0: node 0 would need 6 frames
+        List<MemoryManager.ProcessSpec> batch = List.of(
+                new MemoryManager.ProcessSpec(1, 12), new MemoryManager.ProcessSpec(2, 4), new MemoryManager.ProcessSpec(3, 12));
+        assertThrows(IllegalStateException.class, () -> memoryManager.createProcesses(batch));
+        memoryManager.createProcesses(batch.subList(0, 2));
+        assertEquals(1, memoryManager.getNumaStats(2).getHomeNode());
+    }
+
+    @Test
+    void testDemandPagingFaultsOnHomeNode() {
+        MemoryManager memoryManager = new MemoryManager(32, 4, 16);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+        memoryManager.enableNuma(2, NumaFrameAllocator.SpillPolicy.STRICT);
+        memoryManager.createProcess(1, 16, 1);
+        memoryManager.fork(1, 2);
+
+        memoryManager.readByLogicalAddress(1, 0);
+        memoryManager.writeByLogicalAddress(2, 0, (byte) 5); // copy-on-write copy, also on node 1
+        assertEquals(1, memoryManager.getNumaStats(2).getHomeNode(), "The child inherits the home node");
+        assertEquals(1, memoryManager.getNodeOfFrame(memoryManager.getPageTable(2).getFrameByPage(0)));
+        assertEquals(0, memoryManager.getNumaStats(2).getRemoteAccesses());
+
+        assertThrows(IllegalStateException.class, () -> memoryManager.compact());
+        assertThrows(IllegalStateException.class, () -> memoryManager.enableNuma(2, NumaFrameAllocator.SpillPolicy.STRICT));
+    }
+
+    @Test
+    void testStrictPolicyEvictsOnTheHomeNode() {
+        MemoryManager memoryManager = new MemoryManager(32, 4, 32);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+        memoryManager.enableNuma(2, NumaFrameAllocator.SpillPolicy.STRICT);
+        memoryManager.createProcess(1, 20, 0);
+        memoryManager.createProcess(2, 16, 1);
+
+        for (int address = 0; address < 16; address += 4) {
+            memoryManager.readByLogicalAddress(2, address); // fills node 1 first, so it holds the oldest pages
+        }
+        for (int address = 0; address < 20; address += 4) {
+            memoryManager.readByLogicalAddress(1, address); // the 5th page of process 1 does not fit node 0
+        }
+
+        assertEquals(0, memoryManager.getNodeOfFrame(memoryManager.getPageTable(1).getFrameByPage(4)));
+        assertFalse(memoryManager.getPageTable(1).isValid(0), "The victim is the oldest page on node 0");
+        assertTrue(memoryManager.getPageTable(2).isValid(0), "Node 1 is left alone");
+        assertEquals(0, memoryManager.getNumaStats(1).getRemoteAccesses());
+    }
+}
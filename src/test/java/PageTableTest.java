@@ -0,0 +1,159 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageTableTest {
+
+    private static List<PageTable.Factory> factories() {
+        return List.of(
+                (pid, numberOfPages) -> new PagesTable(numberOfPages),
+                MultiLevelPageTable.factory(2),
+                MultiLevelPageTable.factory(3),
+                new InvertedPageTable(64)
+        );
+    }
+
+    @Test
+    void testEntriesRoundTrip() {
+        for (PageTable.Factory factory : factories()) {
+            PageTable pageTable = factory.create(1, 1000);
+
+            assertFalse(pageTable.isValid(999));
+            pageTable.setFrame(999, 12);
+            pageTable.setFrame(0, 7);
+            pageTable.setFlags(0, PageTable.DIRTY);
+            pageTable.setSwapSlot(500, 3);
+
+            assertEquals(12, pageTable.getFrameByPage(999));
+            assertEquals(7, pageTable.getFrameByPage(0));
+            assertTrue(pageTable.isDirty(0));
+            assertTrue(pageTable.isSwapped(500));
+            assertEquals(3, pageTable.getSwapSlot(500));
+            assertFalse(pageTable.isValid(1));
+
+            pageTable.invalidate(999);
+            assertThrows(IllegalStateException.class, () -> pageTable.getFrameByPage(999));
+            assertThrows(IllegalArgumentException.class, () -> pageTable.getEntry(1000));
+        }
+    }
+
+    @Test
+    void testProtectionBitsSurviveRemapping() {
+        for (PageTable.Factory factory : factories()) {
+            PageTable pageTable = factory.create(1, 100);
+            assertEquals(PageTable.PROT_ALL, pageTable.getProtection(10));
+
+            pageTable.setProtection(10, PageTable.PROT_READ);
+            assertFalse(pageTable.isValid(10));
+            pageTable.setFrame(10, 5);
+            assertEquals(5, pageTable.getFrameByPage(10));
+            pageTable.setSwapSlot(10, 2);
+            assertEquals(2, pageTable.getSwapSlot(10));
+            pageTable.invalidate(10);
+            assertEquals(PageTable.PROT_READ, pageTable.getProtection(10));
+
+            pageTable.setProtection(10, PageTable.PROT_ALL);
+            assertEquals(0, pageTable.getEntry(10));
+        }
+    }
+
+    @Test
+    void testInvertedTableSeparatesProcesses() {
+        InvertedPageTable invertedPageTable = new InvertedPageTable(4);
+        PageTable first = invertedPageTable.forProcess(1, 100);
+        PageTable second = invertedPageTable.forProcess(2, 100);
+
+        // More entries than the initial capacity forces a resize
+        for (int page = 0; page < 100; page++) {
+            first.setFrame(page, page);
+            second.setFrame(page, 1000 + page);
+        }
+        assertEquals(200, invertedPageTable.getSize());
+
+        first.release();
+        assertEquals(100, invertedPageTable.getSize());
+        for (int page = 0; page < 100; page++) {
+            assertFalse(first.isValid(page));
+            assertEquals(1000 + page, second.getFrameByPage(page), "Deleting must keep other probe chains intact");
+        }
+    }
+
+    @Test
+    void testInvertedTableDoesNotCountProtectionOnlyPages() {
+        InvertedPageTable invertedPageTable = new InvertedPageTable(4);
+        PageTable pageTable = invertedPageTable.forProcess(1, 100);
+
+        for (int page = 0; page < 100; page++) {
+            pageTable.setProtection(page, PageTable.PROT_READ);
+        }
+        pageTable.setFrame(7, 3);
+        assertEquals(1, invertedPageTable.getSize(), "Only the mapped page takes a slot");
+        assertEquals(PageTable.PROT_READ, pageTable.getProtection(7));
+        assertEquals(PageTable.PROT_READ, pageTable.getProtection(8));
+
+        pageTable.invalidate(7);
+        assertEquals(0, invertedPageTable.getSize());
+        assertEquals(PageTable.PROT_READ, pageTable.getProtection(7));
+
+        pageTable.release();
+        assertEquals(PageTable.PROT_ALL, invertedPageTable.forProcess(1, 100).getProtection(8));
+    }
+
+    @Test
+    void testSparseFootprint() {
+        int numberOfPages = 1 << 20;
+        PagesTable flat = new PagesTable(numberOfPages);
+        MultiLevelPageTable twoLevel = new MultiLevelPageTable(numberOfPages, 2);
+        MultiLevelPageTable threeLevel = new MultiLevelPageTable(numberOfPages, 3);
+        InvertedPageTable inverted = new InvertedPageTable(1024);
+        PageTable invertedView = inverted.forProcess(1, numberOfPages);
+
+        // Two small clusters at both ends of a 1M-page address space (e.g. heap and stack)
+        for (int page = 0; page < 64; page++) {
+            for (PageTable pageTable : new PageTable[]{flat, twoLevel, threeLevel, invertedView}) {
+                pageTable.setFrame(page, page);
+                pageTable.setFrame(numberOfPages - 1 - page, 64 + page);
+            }
+        }
+
+        assertTrue(twoLevel.getFootprintBytes() * 50 < flat.getFootprintBytes());
+        assertTrue(threeLevel.getFootprintBytes() < twoLevel.getFootprintBytes());
+        assertTrue(inverted.getFootprintBytes() * 50 < flat.getFootprintBytes());
+        assertEquals(64, threeLevel.getFrameByPage(numberOfPages - 1));
+    }
+
+    @Test
+    void testMemoryManagerWithEachImplementation() {
+        for (PageTable.Factory factory : factories()) {
+            MemoryManager eager = new MemoryManager(64, 4, 32);
+            eager.setPageTableFactory(factory);
+            eager.createProcess(1, 10);
+            eager.createProcess(2, 20);
+            byte[] data = new byte[20];
+            eager.read(2, 0, data, 0, 20);
+            assertEquals(data[13], eager.readByLogicalAddress(2, 13));
+            eager.destroyProcess(1);
+            assertEquals(100.0f * 11 / 16, eager.getFreeMemoryPercentage());
+        }
+
+        MemoryManager demand = new MemoryManager(16, 4, 32);
+        demand.setPageTableFactory(new InvertedPageTable(4));
+        demand.enableDemandPaging(new LruPolicy());
+        demand.createProcess(1, 32);
+        demand.write(1, 0, new byte[]{5, 6, 7}, 0, 3);
+        byte[] all = new byte[32];
+        demand.read(1, 0, all, 0, 32);
+        assertEquals(6, demand.readByLogicalAddress(1, 1));
+        assertTrue(demand.getSwapIns() > 0);
+    }
+
+    @Test
+    void testFactoryMustBeSetBeforeProcesses() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.createProcess(1, 4);
+
+        assertThrows(IllegalStateException.class, () -> memoryManager.setPageTableFactory(MultiLevelPageTable.factory(2)));
+    }
+}
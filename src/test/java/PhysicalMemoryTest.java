@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhysicalMemoryTest {
+
+    @Test
+    void testMappedBackendBehavesLikeHeap() {
+        try (MemoryManager memoryManager = new MemoryManager(new PhysicalMemory(MappedMemoryBackend.temporary(64), 4), 32)) {
+            memoryManager.createProcess(1, 10);
+            assertEquals(100.0f * 13 / 16, memoryManager.getFreeMemoryPercentage());
+
+            byte[] data = {9, 8, 7, 6, 5};
+            memoryManager.write(1, 2, data, 0, data.length);
+            byte[] readBack = new byte[5];
+            memoryManager.read(1, 2, readBack, 0, 5);
+
+            assertArrayEquals(data, readBack);
+            assertEquals(7, memoryManager.readByLogicalAddress(1, 4));
+        }
+    }
+
+    @Test
+    void testAddressesBeyondTwoGigabytes(@TempDir Path directory) {
+        long size = 3L << 30; // sparse file, only touched pages use disk
+        try (PhysicalMemory physicalMemory = new PhysicalMemory(new MappedMemoryBackend(directory.resolve("big.ram"), size, false), 4096)) {
+            int lastFrame = physicalMemory.getNumberOfFrames() - 1;
+            long lastFrameAddress = physicalMemory.getAddressByFrame(lastFrame);
+            assertTrue(lastFrameAddress > Integer.MAX_VALUE);
+
+            byte[] page = new byte[4096];
+            page[0] = 1;
+            page[4095] = 2;
+            physicalMemory.write(lastFrameAddress, page, 0, page.length);
+
+            assertEquals(1, physicalMemory.readByte(lastFrameAddress));
+            assertEquals(2, physicalMemory.readByte(size - 1));
+            assertEquals(lastFrame, physicalMemory.getFrameByAddress(size - 1));
+            assertThrows(IllegalArgumentException.class, () -> physicalMemory.readByte(size));
+        }
+    }
+
+    @Test
+    void testPersistentImageSurvivesReopen(@TempDir Path directory) {
+        Path image = directory.resolve("ram.img");
+
+        try (PhysicalMemory physicalMemory = new PhysicalMemory(new MappedMemoryBackend(image, 1024, true), 16)) {
+            physicalMemory.write(512, new byte[]{42, 43}, 0, 2);
+        }
+        assertTrue(Files.exists(image));
+
+        try (PhysicalMemory physicalMemory = new PhysicalMemory(new MappedMemoryBackend(image, 1024, true), 16)) {
+            assertEquals(42, physicalMemory.readByte(512));
+            assertEquals(43, physicalMemory.readByte(513));
+        }
+    }
+
+    @Test
+    void testTemporaryImageIsDeletedOnClose() {
+        MappedMemoryBackend backend = MappedMemoryBackend.temporary(1024);
+        Path file = backend.getFile();
+
+        new PhysicalMemory(backend, 16).close();
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplacementPolicyTest {
+
+    // Replays a page reference string on a 3-frame demand-paged memory and returns the fault count
+    private long countFaults(ReplacementPolicy policy, int[] references) {
+        MemoryManager memoryManager = new MemoryManager(12, 4, 64);
+        memoryManager.enableDemandPaging(policy);
+        memoryManager.createProcess(1, 64);
+
+        for (int page : references) {
+            memoryManager.readByLogicalAddress(1, page * 4);
+        }
+        return memoryManager.getPageFaults();
+    }
+
+    // Classic textbook reference string (Silberschatz), 3 frames
+    private static final int[] REFERENCES = {7, 0, 1, 2, 0, 3, 0, 4, 2, 3, 0, 3, 2, 1, 2, 0, 1, 7, 0, 1};
+
+    @Test
+    void testFifoFaults() {
+        assertEquals(15, countFaults(new FifoPolicy(), REFERENCES));
+    }
+
+    @Test
+    void testLruFaults() {
+        assertEquals(12, countFaults(new LruPolicy(), REFERENCES));
+    }
+
+    @Test
+    void testOptimalFaults() {
+        int[] pids = new int[REFERENCES.length];
+        int[] addresses = new int[REFERENCES.length];
+        for (int i = 0; i < REFERENCES.length; i++) {
+            pids[i] = 1;
+            addresses[i] = REFERENCES[i] * 4;
+        }
+
+        assertEquals(9, countFaults(OptimalPolicy.forAddresses(pids, addresses, 4), REFERENCES));
+    }
+
+    @Test
+    void testClockAndLfuStayBetweenOptimalAndWorstCase() {
+        long clockFaults = countFaults(new ClockPolicy(), REFERENCES);
+        long lfuFaults = countFaults(new LfuPolicy(), REFERENCES);
+
+        assertTrue(clockFaults >= 9 && clockFaults <= REFERENCES.length);
+        assertTrue(lfuFaults >= 9 && lfuFaults <= REFERENCES.length);
+    }
+
+    @Test
+    void testOptimalRejectsDivergingTrace() {
+        OptimalPolicy policy = new OptimalPolicy(new long[]{OptimalPolicy.key(1, 0)});
+
+        assertThrows(IllegalStateException.class, () -> countFaults(policy, new int[]{1}));
+    }
+
+    @Test
+    void testUnknownPolicyName() {
+        assertThrows(IllegalArgumentException.class, () -> ReplacementPolicy.byName("MRU"));
+        assertEquals("CLOCK", ReplacementPolicy.byName("clock").getName());
+    }
+}
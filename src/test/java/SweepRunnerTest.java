@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SweepRunnerTest {
+
+    @Test
+    void testFlagsOverrideConfigFile(@TempDir Path directory) throws IOException {
+        Path config = directory.resolve("sweep.properties");
+        Files.writeString(config, "memory=16K,64K\npage=256\nmax-process=4K\npolicy=lru,clock\nevents=1000\n");
+
+        CommandLineOptions options = CommandLineOptions.parse(
+                new String[]{"--sweep", "--config", config.toString(), "--page", "64,1K", "--threads", "2"});
+
+        assertTrue(options.isSweep());
+        assertEquals(2, options.getThreads());
+        assertEquals(4096, options.getMaxProcessSize());
+        List<SweepRunner.Configuration> configurations = options.getConfigurations();
+        assertEquals(8, configurations.size(), "2 memory sizes x 2 page sizes x 2 policies");
+        assertEquals(16384, configurations.get(0).getPhysicalMemorySize());
+        assertEquals(64, configurations.get(0).getPageSize());
+        assertEquals("LRU", configurations.get(0).getPolicy());
+        assertEquals(1024, configurations.get(7).getPageSize());
+    }
+
+    @Test
+    void testInvalidOptionsAreReportedTogether() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(
+                new String[]{"--memory", "1000", "--page", "48", "--max-process", "1K", "--policy", "MRU"}));
+
+        assertTrue(exception.getMessage().contains("page size 48 is not a power of two"));
+        assertTrue(exception.getMessage().contains("MRU"));
+        assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(new String[]{"--memory", "1K"}));
+        assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(new String[]{"--size", "1K"}));
+        assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(new String[]{"memory", "1K"}),
+                "Option names need their dashes");
+    }
+
+    @Test
+    void testParseErrorsAreReportedTogether() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(
+                new String[]{"--memory", "4K,lots", "--processes", "x", "--write-ratio", "half", "--threads", "2.5"}));
+
+        String message = exception.getMessage();
+        assertTrue(message.contains("memory: Invalid size: lots"), message);
+        assertTrue(message.contains("missing option --page"), message);
+        assertTrue(message.contains("missing option --max-process"), message);
+        assertTrue(message.contains("processes must be an integer: x"), message);
+        assertTrue(message.contains("write-ratio must be a number: half"), message);
+        assertTrue(message.contains("threads must be an integer: 2.5"), message);
+        assertTrue(message.contains(CommandLineOptions.USAGE), "A missing option shows the usage");
+    }
+
+    @Test
+    void testSyntheticTraceIsReproducible() throws IOException {
+        assertEquals(readAll(new SyntheticTrace(3, 512, 1000, 0.5, 7)), readAll(new SyntheticTrace(3, 512, 1000, 0.5, 7)));
+
+        String trace = readAll(new SyntheticTrace(2, 100, 10, 0.0, 1));
+        assertTrue(trace.startsWith("C 1 100\nC 2 100\nR "));
+        assertEquals(12, trace.lines().count());
+    }
+
+    @Test
+    void testSweepRunsEveryConfigurationInOrder() throws Exception {
+        CommandLineOptions options = CommandLineOptions.parse(new String[]{"--sweep", "--memory", "4K,16K",
+                "--page", "64", "--policy", "NONE,FIFO", "--max-process", "2K", "--processes", "4", "--events", "5000"});
+
+        List<SweepRunner.Result> results = new SweepRunner(options).run(options.getConfigurations(), 2);
+
+        assertEquals(4, results.size());
+        SweepRunner.Result eagerSmall = results.get(0);
+        assertEquals("NONE", eagerSmall.getConfiguration().getPolicy());
+        assertTrue(eagerSmall.getReplay().getFailures() > 0, "4 processes of 2K do not fit eagerly in 4K");
+        assertTrue(results.get(1).getReplay().getPageFaults() > 64, "Demand paging in 4K must evict");
+        assertEquals(0, results.get(3).getReplay().getFailures());
+
+        StringWriter csv = new StringWriter();
+        SweepRunner.writeCsv(results, csv);
+        List<String> lines = csv.toString().lines().toList();
+        assertEquals(SweepRunner.CSV_HEADER, lines.get(0));
+        assertEquals(5, lines.size());
+        for (String line : lines) {
+            assertEquals(18, line.split(",", -1).length, line);
+        }
+        assertTrue(lines.get(2).startsWith("4096,64,FIFO,42,64,5004,"));
+    }
+
+    @Test
+    void testRunsOfTheSameConfigurationAreReproducible() throws Exception {
+        CommandLineOptions options = CommandLineOptions.parse(new String[]{"--run", "--memory", "4K",
+                "--page", "64", "--policy", "LRU", "--max-process", "2K", "--processes", "4", "--events", "2000", "--seed", "9"});
+        SweepRunner runner = new SweepRunner(options);
+        SweepRunner.Configuration configuration = options.getConfigurations().get(0);
+
+        SweepRunner.Result first = runner.run(configuration);
+        SweepRunner.Result second = runner.run(configuration);
+        assertEquals(9, first.getSeed());
+        assertEquals(first.getReplay().getChecksum(), second.getReplay().getChecksum(), "Same seed, same process images");
+        assertEquals(first.getReplay().getPageFaults(), second.getReplay().getPageFaults());
+        assertTrue(first.toCsv().startsWith("4096,64,LRU,9,"));
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[7]; // small, so lines are split across reads
+        int count;
+        while ((count = reader.read(buffer, 0, buffer.length)) != -1) {
+            sb.append(buffer, 0, count);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,139 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceReplayerTest {
+
+    @Test
+    void testReplayCountsEvents() throws IOException {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        String trace = String.join("\n",
+                "# pid 1 lives, pid 2 is terminated",
+                "C 1 16",
+                "C 2 8",
+                "",
+                "R 1 0",
+                "W 1 3 -7",
+                "R 1 3",
+                "r 2 7",
+                "T 2",
+                "R 2 0",   // fails: process 2 is gone
+                "R 1 16"); // fails: segmentation fault
+
+        TraceReplayer.ReplayResult result = new TraceReplayer(memoryManager, 3).replay(new StringReader(trace));
+
+        assertEquals(9, result.getEvents());
+        assertEquals(2, result.getCreates());
+        assertEquals(3, result.getReads());
+        assertEquals(1, result.getWrites());
+        assertEquals(1, result.getTerminates());
+        assertEquals(2, result.getFailures());
+        assertEquals(-7, memoryManager.readByLogicalAddress(1, 3));
+        assertEquals(75.0f, result.getFreeMemoryPercentage());
+    }
+
+    @Test
+    void testReplayCountsProtectionFaults() throws IOException {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        String trace = String.join("\n",
+                "C 1 16",
+                "P 1 0 8 5",   // pages 0-1: read + execute
+                "X 1 2",
+                "W 1 2 1",     // fails: protection fault
+                "W 1 8 1",
+                "P 1 8 4 0",
+                "R 1 8");      // fails: protection fault
+
+        TraceReplayer.ReplayResult result = new TraceReplayer(memoryManager).replay(new StringReader(trace));
+
+        assertEquals(1, result.getExecutes());
+        assertEquals(2, result.getProtects());
+        assertEquals(1, result.getWrites());
+        assertEquals(0, result.getReads(), "A denied read is a failure, not a read");
+        assertEquals(2, result.getProtectionFaults());
+        assertEquals(2, result.getFailures());
+    }
+
+    @Test
+    void testReplayStreamsLargeTrace() throws IOException {
+        MemoryManager memoryManager = new MemoryManager(1 << 12, 16, 1 << 12);
+        memoryManager.enableDemandPaging(new ClockPolicy());
+        memoryManager.createProcess(1, 1 << 12);
+
+        // Generated on the fly, the trace never exists as a whole
+        int events = 500_000;
+        Reader trace = new Reader() {
+            private int emitted;
+            private String pending = "";
+
+            @Override
+            public int read(char[] buffer, int offset, int length) {
+                if (this.pending.isEmpty()) {
+                    if (this.emitted == events) {
+                        return -1;
+                    }
+                    this.pending = "R 1 " + ((this.emitted++ * 37) % (1 << 12)) + "\n";
+                }
+                int count = Math.min(length, this.pending.length());
+                this.pending.getChars(0, count, buffer, offset);
+                this.pending = this.pending.substring(count);
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        TraceReplayer.ReplayResult result = new TraceReplayer(memoryManager).replay(trace);
+
+        assertEquals(events, result.getReads());
+        assertEquals(0, result.getFailures());
+        assertTrue(result.getPageFaults() >= 256, "Every page is touched at least once");
+        assertTrue(result.toString().contains("events/s"));
+    }
+
+    @Test
+    void testSecondReplayReportsItsOwnPageFaults() throws IOException {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        memoryManager.enableDemandPaging(new FifoPolicy());
+        TraceReplayer replayer = new TraceReplayer(memoryManager);
+
+        TraceReplayer.ReplayResult first = replayer.replay(new StringReader("C 1 16\nR 1 0\nR 1 4\n"));
+        TraceReplayer.ReplayResult second = replayer.replay(new StringReader("R 1 0\nR 1 8\n"));
+
+        assertEquals(2, first.getPageFaults());
+        assertEquals(1, second.getPageFaults(), "Only page 2 is new to the second replay");
+    }
+
+    @Test
+    void testMalformedLine() {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            new TraceReplayer(memoryManager).replay(new StringReader("C 1 16\nR 1\n"));
+        });
+
+        assertTrue(exception.getMessage().contains("Line 2"));
+    }
+
+    @Test
+    void testTrailingTextAndOutOfRangeValuesAreRejected() throws IOException {
+        MemoryManager memoryManager = new MemoryManager(64, 4, 32);
+        TraceReplayer replayer = new TraceReplayer(memoryManager);
+
+        for (String line : new String[]{"R 1 5x", "W 1 2 3 4", "R 1-2", "W 1 2 256", "W 1 2 -129"}) {
+            Exception exception = assertThrows(IllegalArgumentException.class,
+                    () -> replayer.replay(new StringReader("C 1 16\n" + line + "\n")), line);
+            assertTrue(exception.getMessage().startsWith("Line 2:"), exception.getMessage());
+        }
+
+        TraceReplayer.ReplayResult result = replayer.replay(new StringReader("C 1 16\nW 1 2 255 # last byte value\nR 1 2\t\n"));
+        assertEquals(0, result.getFailures());
+        assertEquals(-1, memoryManager.readByLogicalAddress(1, 2));
+    }
+}